@@ -0,0 +1,49 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import javax.ws.rs.core.Application;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+
+/**
+ * Sends requests straight to an {@code ApplicationHandler}, with no
+ * container or network in the way, so the benchmarks measure Jersey and the
+ * injection of the properties.
+ *
+ * @author Paul Samsotha
+ */
+final class BenchmarkRequests {
+
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    private final ApplicationHandler handler;
+
+    BenchmarkRequests(Application application) {
+        this.handler = new ApplicationHandler(application);
+    }
+
+    /**
+     * Send a {@code GET} request.
+     *
+     * @param path the path, relative to the base URI.
+     * @param acceptLanguage the {@code Accept-Language} header, or {@code null}.
+     * @return the response entity.
+     * @throws IllegalStateException if the response is not a 200.
+     */
+    Object get(String path, String acceptLanguage) throws Exception {
+        ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path), "GET",
+                null, new MapPropertiesDelegate());
+        if (acceptLanguage != null) {
+            request.header("Accept-Language", acceptLanguage);
+        }
+        ContainerResponse response = handler.apply(request, new ByteArrayOutputStream()).get();
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.getStatus());
+        }
+        return response.getEntity();
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+/**
+ * Resource injecting properties in the ways measured by the benchmarks.
+ *
+ * @author Paul Samsotha
+ */
+@Path("bench")
+public class BenchmarkResource {
+
+    @GET
+    @Path("string")
+    public String string(@Prop("hello.prop") String value) {
+        return value;
+    }
+
+    @GET
+    @Path("int")
+    public String integer(@Prop("int.prop") int value) {
+        return String.valueOf(value);
+    }
+
+    @GET
+    @Path("converter")
+    public String converter(@Prop("hello.prop") HelloProperty value) {
+        return value.toString();
+    }
+
+    @GET
+    @Path("params-1")
+    public String params1(@Prop("p0") String p0) {
+        return p0;
+    }
+
+    @GET
+    @Path("params-4")
+    public String params4(@Prop("p0") String p0, @Prop("p1") String p1,
+            @Prop("p2") String p2, @Prop("p3") String p3) {
+        return p3;
+    }
+
+    @GET
+    @Path("params-16")
+    public String params16(@Prop("p0") String p0, @Prop("p1") String p1,
+            @Prop("p2") String p2, @Prop("p3") String p3,
+            @Prop("p4") String p4, @Prop("p5") String p5,
+            @Prop("p6") String p6, @Prop("p7") String p7,
+            @Prop("p8") String p8, @Prop("p9") String p9,
+            @Prop("p10") String p10, @Prop("p11") String p11,
+            @Prop("p12") String p12, @Prop("p13") String p13,
+            @Prop("p14") String p14, @Prop("p15") String p15) {
+        return p15;
+    }
+
+    /**
+     * Properties for the resource.
+     */
+    static final class Properties implements PropertiesProvider {
+
+        @Override
+        public Map<String, String> getProperties() {
+            Map<String, String> properties = new HashMap<String, String>();
+            properties.put("hello.prop", "Hello Props");
+            properties.put("int.prop", "123456");
+            for (int i = 0; i < 16; i++) {
+                properties.put("p" + i, "value" + i);
+            }
+            return properties;
+        }
+    }
+
+    /**
+     * Resource injecting a message of the test resource bundles.
+     */
+    @Path("bench/message")
+    public static class Messages {
+
+        @GET
+        public String message(@Prop("message") String message) {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of resolving properties the first time: the startup of an
+ * application, and its first request, with the properties resolved on
+ * startup, or on first use.
+ *
+ * @author Paul Samsotha
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+public class FirstResolutionBenchmark {
+
+    @State(Scope.Thread)
+    public static class Config {
+
+        @Param({"true", "false"})
+        public boolean resolveOnStartup;
+
+        ResourceConfig newConfig() {
+            return new ResourceConfig(BenchmarkResource.class)
+                    .register(new JerseyPropertiesFeature(new BenchmarkResource.Properties()))
+                    .register(HelloPropertyParamProvider.class)
+                    .property(JerseyPropertiesFeature.DISABLE_DEFAULT_PROPERTIES_PROVIDER, true)
+                    .property(JerseyPropertiesFeature.RESOLVE_ON_STARTUP, resolveOnStartup);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StartedApplication {
+
+        BenchmarkRequests requests;
+
+        @Setup(Level.Iteration)
+        public void setUp(Config config) {
+            requests = new BenchmarkRequests(config.newConfig());
+        }
+    }
+
+    @Benchmark
+    public Object startup(Config config) {
+        return new BenchmarkRequests(config.newConfig());
+    }
+
+    @Benchmark
+    public Object firstRequest(StartedApplication application) throws Exception {
+        return application.requests.get("bench/params-16", null);
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests injecting an i18n message, with {@code Accept-Language} headers
+ * cycling through 1, 10 or 100 distinct locales. The locales include the
+ * test bundles' {@code de-DE}, {@code fr-FR} and {@code en-US}, and then
+ * locales without a bundle of their own, which fall back to the default.
+ *
+ * @author Paul Samsotha
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class I18NInjectionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int locales;
+
+    private BenchmarkRequests requests;
+    private String[] acceptLanguages;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        ResourceConfig config = new ResourceConfig(BenchmarkResource.Messages.class)
+                .register(new JerseyPropertiesFeature())
+                .property(JerseyPropertiesFeature.ENABLE_I18N, true)
+                .property(JerseyPropertiesFeature.RESOURCE_BUNDLE, "Messages")
+                .property(JerseyPropertiesFeature.DEFAULT_LOCALE, Locale.US);
+        requests = new BenchmarkRequests(config);
+        acceptLanguages = acceptLanguages(locales);
+        for (String acceptLanguage : acceptLanguages) {
+            requests.get("bench/message", acceptLanguage);
+        }
+    }
+
+    private static String[] acceptLanguages(int count) {
+        List<String> tags = new ArrayList<String>();
+        tags.add("de-DE");
+        tags.add("fr-FR");
+        tags.add("en-US");
+        for (String tag : new TreeSet<String>(availableTags())) {
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        if (tags.size() < count) {
+            throw new IllegalStateException("Only " + tags.size() + " locales are available.");
+        }
+        List<String> headers = new ArrayList<String>();
+        for (String tag : tags.subList(0, count)) {
+            headers.add(tag + ",en;q=0.5");
+        }
+        return headers.toArray(new String[count]);
+    }
+
+    private static List<String> availableTags() {
+        List<String> tags = new ArrayList<String>();
+        for (Locale locale : Locale.getAvailableLocales()) {
+            if (!locale.getCountry().isEmpty() && locale.getVariant().isEmpty()) {
+                tags.add(locale.toLanguageTag());
+            }
+        }
+        return tags;
+    }
+
+    @Benchmark
+    public Object message() throws Exception {
+        String acceptLanguage = acceptLanguages[next];
+        next = next + 1 == acceptLanguages.length ? 0 : next + 1;
+        return requests.get("bench/message", acceptLanguage);
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests injecting already resolved properties, the steady state of an
+ * application: a plain {@code String}, an {@code int} with a built-in
+ * converter, a type with the application's own {@code ParamConverter}, and
+ * methods with 1, 4 and 16 {@code Prop} parameters. Each is measured with
+ * the default, compact and reloadable properties.
+ *
+ * @author Paul Samsotha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+
+    @Param({"default", "compact", "reload"})
+    public String mode;
+
+    @Param({"string", "int", "converter", "params-1", "params-4", "params-16"})
+    public String path;
+
+    private BenchmarkRequests requests;
+    private String uri;
+
+    @Setup
+    public void setUp() throws Exception {
+        ResourceConfig config = new ResourceConfig(BenchmarkResource.class)
+                .register(new JerseyPropertiesFeature(new BenchmarkResource.Properties()))
+                .register(HelloPropertyParamProvider.class)
+                .property(JerseyPropertiesFeature.DISABLE_DEFAULT_PROPERTIES_PROVIDER, true)
+                .property(JerseyPropertiesFeature.COMPACT_PROPERTIES, mode.equals("compact"))
+                .property(JerseyPropertiesFeature.ENABLE_RELOAD, mode.equals("reload"));
+        requests = new BenchmarkRequests(config);
+        uri = "bench/" + path;
+        requests.get(uri, null);
+    }
+
+    @Benchmark
+    public Object cachedProperty() throws Exception {
+        return requests.get(uri, null);
+    }
+}
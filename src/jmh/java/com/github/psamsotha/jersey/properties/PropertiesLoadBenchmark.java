@@ -0,0 +1,103 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a properties file of 1k, 100k and 1M entries, with
+ * {@code java.util.Properties} and with the {@code PropertiesParser}, and
+ * packing the loaded properties.
+ *
+ * @author Paul Samsotha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PropertiesLoadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private File file;
+    private Map<String, String> loaded;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("benchmark", ".properties");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file.toPath()), StandardCharsets.ISO_8859_1));
+        try {
+            writer.write("# generated for PropertiesLoadBenchmark\n");
+            for (int i = 0; i < entries; i++) {
+                writer.write("group." + (i % 100) + ".key." + i + " = value " + i + " caf\\u00e9\n");
+            }
+        } finally {
+            writer.close();
+        }
+        loaded = parser();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Properties jdkProperties() throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return properties;
+    }
+
+    @Benchmark
+    public Map<String, String> parser() throws IOException {
+        Map<String, String> properties = new HashMap<String, String>();
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            PropertiesParser.parse(channel, properties);
+        } finally {
+            channel.close();
+        }
+        return properties;
+    }
+
+    @Benchmark
+    public Map<String, String> pack() {
+        return PackedPropertiesMap.pack(loaded);
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The lookups under the injection path, without Jersey: reading a property
+ * from the hash and the packed stores, typed reads, prefix queries, and a
+ * cached conversion.
+ *
+ * @author Paul Samsotha
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    public int entries;
+
+    @Param({"hash", "packed"})
+    public String store;
+
+    private DefaultConfigProperties properties;
+    private TypedProperties typed;
+    private TypedProperties.IntProperty limit;
+    private PropertyConverters converters;
+    private PropertyConverter<?> patternConverter;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> map = new HashMap<String, String>();
+        keys = new String[1024];
+        for (int i = 0; i < entries; i++) {
+            String key = "group." + (i % 100) + ".key." + i;
+            map.put(key, "value " + i);
+            if (i < keys.length) {
+                keys[i] = key;
+            }
+        }
+        map.put("rate.limit", "100");
+        properties = new DefaultConfigProperties(Locale.US,
+                store.equals("packed") ? PackedPropertiesMap.pack(map) : map);
+        typed = new TypedProperties(new ConfigPropertiesFactory(properties));
+        limit = typed.intProperty("rate.limit");
+        converters = new PropertyConverters(PropertyConverters.DEFAULT_CACHE_SIZE);
+        patternConverter = PropertyConverters.forType(Pattern.class);
+    }
+
+    @Benchmark
+    public String getFirst() {
+        String key = keys[next];
+        next = (next + 1) & (keys.length - 1);
+        return properties.getFirst(key);
+    }
+
+    @Benchmark
+    public int typedGetInt() {
+        return typed.getInt("rate.limit");
+    }
+
+    @Benchmark
+    public int typedIntHandle() {
+        return limit.get();
+    }
+
+    @Benchmark
+    public Map<String, String> prefixQuery() {
+        return properties.withPrefix("group.7.");
+    }
+
+    @Benchmark
+    public Object cachedPatternConversion() {
+        return converters.convert(patternConverter, Pattern.class, "[a-z]+\\d*");
+    }
+}
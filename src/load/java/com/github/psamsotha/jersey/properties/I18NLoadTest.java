@@ -0,0 +1,126 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+import static com.github.psamsotha.jersey.properties.InjectionLoadTest.assertNoErrors;
+
+/**
+ * Injection of i18n messages, with threads sending different
+ * {@code Accept-Language} headers at the same time. A message of another
+ * locale than the one negotiated for the request fails the run, and so does
+ * a locale cache that ends up with more than one value for a locale.
+ *
+ * @author Paul Samsotha
+ */
+public class I18NLoadTest extends JerseyTest {
+
+    private static final String PROPERTIES_PATH = "properties-path";
+    private static final String REQUEST_LOCALE_PATH = "request-locale-path";
+    private static final String IDENTITY_PATH = "identity";
+
+    private static final String EN_US_MESSAGE = "Blah in US English";
+    private static final String DE_DE_MESSAGE = "Blah in German";
+    private static final String FR_FR_MESSAGE = "Blah in French";
+
+    private static final String[] ACCEPT_LANGUAGES = {
+        "de-DE", "fr-FR", "en-US", "ja, fr-CA;q=0.9, de;q=0.8", null
+    };
+    private static final String[] MESSAGES = {
+        DE_DE_MESSAGE, FR_FR_MESSAGE, EN_US_MESSAGE, FR_FR_MESSAGE, EN_US_MESSAGE
+    };
+    private static final String[] LOCALES = {
+        "de_DE", "fr_FR", "en_US", "fr_FR", "en_US"
+    };
+
+    /**
+     * Returns the identity of the injected message, which is converted once
+     * per locale, and then cached.
+     */
+    @Path(IDENTITY_PATH)
+    public static class IdentityResource {
+
+        @GET
+        public String get(@Prop("message") HelloProperty message) {
+            return System.identityHashCode(message) + " " + message;
+        }
+    }
+
+    @Override
+    public ResourceConfig configure() {
+        return new ResourceConfig(
+                JerseyPropertiesFeatureI18NTest.I18NPropertiesResource.class,
+                IdentityResource.class)
+                .register(JerseyPropertiesFeature.class)
+                .register(HelloPropertyParamProvider.class)
+                .property(JerseyPropertiesFeature.ENABLE_I18N, true)
+                .property(JerseyPropertiesFeature.RESOURCE_BUNDLE, "Messages");
+    }
+
+    private Invocation.Builder request(String path, String acceptLanguage) {
+        Invocation.Builder request = target(path).request();
+        return acceptLanguage != null ? request.header("Accept-Language", acceptLanguage) : request;
+    }
+
+    @Test
+    public void messages_should_match_the_request_locale_under_load() throws Exception {
+        List<LoadHarness.Result> results = LoadHarness.fromSystemProperties().run("i18n messages",
+                new LoadHarness.Scenario() {
+                    @Override
+                    public String call(int thread, long iteration) {
+                        int language = (int) ((thread + iteration) % ACCEPT_LANGUAGES.length);
+                        boolean locale = iteration % 4 == 0;
+                        Response response = request(locale ? PROPERTIES_PATH + "/" + REQUEST_LOCALE_PATH
+                                : PROPERTIES_PATH, ACCEPT_LANGUAGES[language]).get();
+                        String body = response.readEntity(String.class);
+                        String expected = locale ? LOCALES[language] : MESSAGES[language];
+                        if (response.getStatus() != 200) {
+                            return ACCEPT_LANGUAGES[language] + " returned " + response.getStatus();
+                        }
+                        if (!expected.equals(body)) {
+                            return ACCEPT_LANGUAGES[language] + " returned " + body + ", expected " + expected;
+                        }
+                        return null;
+                    }
+                });
+        assertNoErrors(results);
+    }
+
+    @Test
+    public void locale_caches_should_keep_one_value_per_locale_under_load() throws Exception {
+        final ConcurrentMap<Integer, String> values = new ConcurrentHashMap<Integer, String>();
+        List<LoadHarness.Result> results = LoadHarness.fromSystemProperties().coldStart().run("i18n cache",
+                new LoadHarness.Scenario() {
+                    @Override
+                    public String call(int thread, long iteration) {
+                        int language = (int) ((thread + iteration) % ACCEPT_LANGUAGES.length);
+                        Response response = request(IDENTITY_PATH, ACCEPT_LANGUAGES[language]).get();
+                        String body = response.readEntity(String.class);
+                        if (response.getStatus() != 200) {
+                            return ACCEPT_LANGUAGES[language] + " returned " + response.getStatus();
+                        }
+                        if (!body.endsWith(" " + MESSAGES[language])) {
+                            return ACCEPT_LANGUAGES[language] + " returned " + body
+                                    + ", expected " + MESSAGES[language];
+                        }
+                        String first = values.putIfAbsent(language, body);
+                        if (first != null && !first.equals(body)) {
+                            return ACCEPT_LANGUAGES[language] + " returned " + body + ", first had " + first;
+                        }
+                        return null;
+                    }
+                });
+        assertNoErrors(results);
+        assertEquals(ACCEPT_LANGUAGES.length, values.size());
+    }
+}
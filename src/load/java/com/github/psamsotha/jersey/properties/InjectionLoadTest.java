@@ -0,0 +1,118 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ * Injection of the properties of the data types test, under load. Every
+ * response is checked against the expected value, and the cached
+ * {@code TypedProperties} handles must be shared by all the threads.
+ *
+ * @author Paul Samsotha
+ */
+public class InjectionLoadTest extends JerseyTest {
+
+    private static final String PROPERTY_PATH = "property";
+    private static final String HANDLE_PATH = "handle";
+
+    private static final String[] PATHS = {
+        "int-path", "hello-path", "typed-path", "default-path", "collection-path", "prefix-path"
+    };
+    private static final String[] EXPECTED = {
+        "123456",
+        "Hello Props",
+        "123456; true; 7; Hello Props",
+        "42; 123456; null",
+        "[a.example.com, b.example.com, c.example.com]; [80, 443]; 3; []",
+        "{alpha=false, beta=true}; Boolean; {}; [alpha, beta]"
+    };
+
+    /**
+     * Returns the identity of the handle of a property, created by the first
+     * request for the key, on any thread.
+     */
+    @Path(HANDLE_PATH + "/{key}")
+    public static class HandleResource {
+
+        @Inject
+        private TypedProperties typedProperties;
+
+        @GET
+        public String get(@PathParam("key") String key) {
+            return String.valueOf(System.identityHashCode(typedProperties.intProperty(key)));
+        }
+    }
+
+    @Override
+    public ResourceConfig configure() {
+        return new ResourceConfig(
+                JerseyPropertiesFeatureDataTypesTest.OtherTypesPropertiesResource.class,
+                HandleResource.class)
+                .register(JerseyPropertiesFeature.class)
+                .register(HelloPropertyParamProvider.class)
+                .property(JerseyPropertiesFeature.RESOURCE_PATH, "/app.properties");
+    }
+
+    @Test
+    public void injected_values_should_be_right_under_load() throws Exception {
+        List<LoadHarness.Result> results = LoadHarness.fromSystemProperties().run("injection",
+                new LoadHarness.Scenario() {
+                    @Override
+                    public String call(int thread, long iteration) {
+                        int path = (int) ((thread + iteration) % PATHS.length);
+                        Response response = target(PROPERTY_PATH).path(PATHS[path]).request().get();
+                        String body = response.readEntity(String.class);
+                        if (response.getStatus() != 200) {
+                            return PATHS[path] + " returned " + response.getStatus();
+                        }
+                        if (!EXPECTED[path].equals(body)) {
+                            return PATHS[path] + " returned " + body + ", expected " + EXPECTED[path];
+                        }
+                        return null;
+                    }
+                });
+        assertNoErrors(results);
+    }
+
+    @Test
+    public void typed_property_handles_should_not_be_lost_under_load() throws Exception {
+        final ConcurrentMap<String, String> handles = new ConcurrentHashMap<String, String>();
+        List<LoadHarness.Result> results = LoadHarness.fromSystemProperties().run("typed handles",
+                new LoadHarness.Scenario() {
+                    @Override
+                    public String call(int thread, long iteration) {
+                        // all the threads race on the first request of each key
+                        String key = "load.key." + (iteration / 8);
+                        Response response = target(HANDLE_PATH).path(key).request().get();
+                        String handle = response.readEntity(String.class);
+                        if (response.getStatus() != 200) {
+                            return key + " returned " + response.getStatus();
+                        }
+                        String first = handles.putIfAbsent(key, handle);
+                        if (first != null && !first.equals(handle)) {
+                            return key + " has handle " + handle + ", first had " + first;
+                        }
+                        return null;
+                    }
+                });
+        assertNoErrors(results);
+    }
+
+    static void assertNoErrors(List<LoadHarness.Result> results) {
+        for (LoadHarness.Result result : results) {
+            assertEquals("at " + result.threads + " threads: " + result.errors, 0, result.errorCount);
+        }
+    }
+}
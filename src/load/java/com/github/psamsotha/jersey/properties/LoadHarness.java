@@ -0,0 +1,215 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives a scenario from 1 to 64 threads, and reports the throughput and the
+ * latency percentiles of each thread count. Every call of the scenario is
+ * checked, so a wrong value under contention fails the run, not only a slow
+ * one.
+ *
+ * The thread counts and the number of calls are read from the system
+ * properties {@code load.threads} (like {@code 1,8,64}),
+ * {@code load.requests} and {@code load.warmup}, the calls per thread.
+ *
+ * @author Paul Samsotha
+ */
+final class LoadHarness {
+
+    static final String THREADS = "load.threads";
+    static final String REQUESTS = "load.requests";
+    static final String WARMUP = "load.warmup";
+
+    private static final int MAX_ERRORS = 20;
+    private static final long HIGHEST_LATENCY = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * A request made by the load threads.
+     */
+    interface Scenario {
+
+        /**
+         * Make a request, and check the response.
+         *
+         * @param thread the index of the calling thread.
+         * @param iteration the index of the call in the thread. The calls of
+         * earlier runs are counted too, so it is unique across runs.
+         * @return {@code null} if the response is right, otherwise a
+         * description of what is wrong.
+         * @throws Exception if the request fails.
+         */
+        String call(int thread, long iteration) throws Exception;
+    }
+
+    /**
+     * The outcome of a run at one thread count.
+     */
+    static final class Result {
+
+        final int threads;
+        final long requests;
+        final double throughput;
+        final Histogram latencies;
+        final int errorCount;
+        final List<String> errors;
+
+        Result(int threads, long requests, double throughput, Histogram latencies,
+                int errorCount, List<String> errors) {
+            this.threads = threads;
+            this.requests = requests;
+            this.throughput = throughput;
+            this.latencies = latencies;
+            this.errorCount = errorCount;
+            this.errors = errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("threads=%-3d %,12.0f req/s  p50=%,9.1fus  p90=%,9.1fus  "
+                    + "p99=%,9.1fus  p99.9=%,9.1fus  max=%,10.1fus  errors=%d",
+                    threads, throughput,
+                    micros(latencies.getValueAtPercentile(50)),
+                    micros(latencies.getValueAtPercentile(90)),
+                    micros(latencies.getValueAtPercentile(99)),
+                    micros(latencies.getValueAtPercentile(99.9)),
+                    micros(latencies.getMaxValue()),
+                    errorCount);
+        }
+
+        private static double micros(long nanos) {
+            return nanos / 1000.0;
+        }
+    }
+
+    private final int[] threadCounts;
+    private final int requests;
+    private final int warmup;
+    private long calls;
+
+    LoadHarness(int[] threadCounts, int requests, int warmup) {
+        this.threadCounts = threadCounts;
+        this.requests = requests;
+        this.warmup = warmup;
+    }
+
+    /**
+     * Create the harness from the system properties.
+     *
+     * @return the harness.
+     */
+    static LoadHarness fromSystemProperties() {
+        String[] counts = System.getProperty(THREADS, "1,2,4,8,16,32,64").split(",");
+        int[] threadCounts = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            threadCounts[i] = Integer.parseInt(counts[i].trim());
+        }
+        return new LoadHarness(threadCounts,
+                Integer.getInteger(REQUESTS, 2000),
+                Integer.getInteger(WARMUP, 200));
+    }
+
+    /**
+     * Get a harness that starts with the highest thread count, and without
+     * warmup, so the first requests race on empty caches.
+     *
+     * @return the harness.
+     */
+    LoadHarness coldStart() {
+        int[] descending = threadCounts.clone();
+        Arrays.sort(descending);
+        for (int i = 0, j = descending.length - 1; i < j; i++, j--) {
+            int count = descending[i];
+            descending[i] = descending[j];
+            descending[j] = count;
+        }
+        return new LoadHarness(descending, requests, 0);
+    }
+
+    /**
+     * Run the scenario at each thread count, printing a line per count.
+     *
+     * @param name the name of the scenario, for the report.
+     * @param scenario the scenario.
+     * @return the results, one per thread count.
+     * @throws Exception if a request fails.
+     */
+    List<Result> run(String name, Scenario scenario) throws Exception {
+        List<Result> results = new ArrayList<Result>();
+        System.out.println(name + ": " + requests + " requests per thread, after "
+                + warmup + " warmup requests");
+        for (int threads : threadCounts) {
+            if (warmup > 0) {
+                run(threads, warmup, scenario);
+            }
+            Result result = run(threads, requests, scenario);
+            System.out.println("  " + result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private Result run(int threads, final int count, final Scenario scenario) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Queue<String> errors = new ConcurrentLinkedQueue<String>();
+        final AtomicInteger errorCount = new AtomicInteger();
+        final long first = calls;
+        calls += count;
+        try {
+            List<Future<Histogram>> futures = new ArrayList<Future<Histogram>>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(new Callable<Histogram>() {
+                    @Override
+                    public Histogram call() throws Exception {
+                        Histogram histogram;
+                        try {
+                            histogram = new Histogram(HIGHEST_LATENCY, 3);
+                        } finally {
+                            ready.countDown();
+                        }
+                        start.await();
+                        for (long i = first; i < first + count; i++) {
+                            long begin = System.nanoTime();
+                            String error = scenario.call(thread, i);
+                            histogram.recordValue(Math.min(System.nanoTime() - begin, HIGHEST_LATENCY));
+                            if (error != null && errorCount.incrementAndGet() <= MAX_ERRORS) {
+                                errors.add("thread " + thread + ", request " + i + ": " + error);
+                            }
+                        }
+                        return histogram;
+                    }
+                }));
+            }
+            ready.await();
+            long begin = System.nanoTime();
+            start.countDown();
+
+            Histogram latencies = new Histogram(HIGHEST_LATENCY, 3);
+            for (Future<Histogram> future : futures) {
+                latencies.add(future.get());
+            }
+            long elapsed = System.nanoTime() - begin;
+            long total = (long) threads * count;
+            return new Result(threads, total, total * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                    latencies, errorCount.get(), Collections.unmodifiableList(new ArrayList<String>(errors)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size-bounded concurrent cache. Reads are a single lock-free map lookup.
+ * When the cache is full, an insert evicts an arbitrary entry, which keeps
+ * the heap flat under high-cardinality keys, at the cost of the occasional
+ * recomputation of a hot entry.
+ *
+ * @author Paul Samsotha
+ */
+final class BoundedCache<K, V> {
+
+    private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<K, V>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final int maxSize;
+
+    BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Cache the value, evicting another entry if the cache is full.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @return the value now held for the key.
+     */
+    V put(K key, V value) {
+        if (entries.size() >= maxSize) {
+            Iterator<K> keys = entries.keySet().iterator();
+            if (keys.hasNext() && entries.remove(keys.next()) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+        V existing = entries.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long evictions() {
+        return evictions.get();
+    }
+}
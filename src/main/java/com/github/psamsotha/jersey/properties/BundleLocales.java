@@ -0,0 +1,233 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.IllformedLocaleException;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Finds the locales that have a bundle file of a resource bundle. The
+ * directories, or jar entries, that hold the bundle files are listed, and the
+ * locale is read from the name of each file, so any locale is found, with a
+ * script like {@code sr_Latn}, or one the JVM does not know, and it costs a
+ * few resource lookups, however many locales the JVM has.
+ *
+ * Only if none of the places can be listed, like with a class loader whose
+ * resources are neither files nor jars, are the locales of the JVM probed one
+ * resource at a time. The locales can also be given explicitly.
+ *
+ * @author Paul Samsotha
+ */
+final class BundleLocales {
+
+    private static final Logger LOGGER = Logger.getLogger(BundleLocales.class.getName());
+
+    private static final List<String> FORMATS = Arrays.asList("properties", "class");
+
+    private BundleLocales() {}
+
+    /**
+     * Find the locales with a bundle file, by listing the places that hold
+     * the bundle files.
+     *
+     * @param bundleName the bundle base name.
+     * @param loader the class loader of the bundles.
+     * @return the locales with a bundle, the root locale first.
+     */
+    static List<Locale> find(String bundleName, ClassLoader loader) {
+        String path = bundleName.replace('.', '/');
+        int slash = path.lastIndexOf('/');
+        String directory = path.substring(0, slash + 1);
+        String simpleName = path.substring(slash + 1);
+
+        Set<String> fileNames = new TreeSet<String>();
+        boolean listed = false;
+        try {
+            for (String format : FORMATS) {
+                // the places of the root bundle, in jars too, which do not
+                // always have directory entries.
+                Enumeration<URL> roots = loader.getResources(path + "." + format);
+                while (roots.hasMoreElements()) {
+                    listed |= list(roots.nextElement(), directory, fileNames);
+                }
+            }
+            Enumeration<URL> directories = loader.getResources(directory);
+            while (directories.hasMoreElements()) {
+                listed |= list(directories.nextElement(), directory, fileNames);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Error listing the files of bundle " + bundleName + ".", ex);
+        }
+        if (!listed) {
+            LOGGER.log(Level.FINE, "The files of bundle {0} could not be listed, probing the JVM locales.",
+                    bundleName);
+            List<Locale> candidates = new ArrayList<Locale>(Arrays.asList(Locale.getAvailableLocales()));
+            return withBundle(bundleName, candidates, loader);
+        }
+
+        ResourceBundle.Control control = control();
+        List<Locale> found = new ArrayList<Locale>();
+        for (String fileName : fileNames) {
+            Locale locale = bundleLocale(control, simpleName, fileName);
+            if (locale != null && !found.contains(locale)) {
+                found.add(locale);
+            }
+        }
+        Collections.sort(found, new Comparator<Locale>() {
+            @Override
+            public int compare(Locale a, Locale b) {
+                return a.toString().compareTo(b.toString());
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Get the given locales that have a bundle file, and the root locale, if
+     * it has one.
+     *
+     * @param bundleName the bundle base name.
+     * @param locales the locales.
+     * @param loader the class loader of the bundles.
+     * @return the locales with a bundle, the root locale first.
+     */
+    static List<Locale> withBundle(String bundleName, List<Locale> locales, ClassLoader loader) {
+        ResourceBundle.Control control = control();
+        List<Locale> candidates = new ArrayList<Locale>();
+        candidates.add(Locale.ROOT);
+        candidates.addAll(locales);
+        List<Locale> found = new ArrayList<Locale>();
+        for (Locale locale : candidates) {
+            String name = control.toBundleName(bundleName, locale);
+            boolean hasBundle = false;
+            for (String format : FORMATS) {
+                hasBundle |= loader.getResource(control.toResourceName(name, format)) != null;
+            }
+            if (hasBundle && !found.contains(locale)) {
+                found.add(locale);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the locale of a bundle file name, like {@code Messages_sr_Latn_RS}
+     * for {@code sr-Latn-RS}.
+     *
+     * @return the locale, or {@code null} if the file is not a bundle file.
+     */
+    static Locale bundleLocale(ResourceBundle.Control control, String simpleName, String fileName) {
+        String name = null;
+        for (String format : FORMATS) {
+            if (fileName.endsWith("." + format)) {
+                name = fileName.substring(0, fileName.length() - format.length() - 1);
+            }
+        }
+        if (name == null || !name.startsWith(simpleName)) {
+            return null;
+        }
+        if (name.length() == simpleName.length()) {
+            return Locale.ROOT;
+        }
+        if (name.charAt(simpleName.length()) != '_') {
+            return null;
+        }
+        Locale locale = toLocale(name.substring(simpleName.length() + 1));
+        // the reverse of Control.toBundleName, for the names it makes only.
+        return locale != null && control.toBundleName(simpleName, locale).equals(name) ? locale : null;
+    }
+
+    private static Locale toLocale(String suffix) {
+        String[] parts = suffix.split("_", -1);
+        int index = 1;
+        String script = "";
+        if (index < parts.length && parts[index].length() == 4 && isAlpha(parts[index])) {
+            script = parts[index++];
+        }
+        String country = index < parts.length ? parts[index++] : "";
+        StringBuilder variant = new StringBuilder();
+        while (index < parts.length) {
+            variant.append(variant.length() == 0 ? "" : "_").append(parts[index++]);
+        }
+        if (script.isEmpty()) {
+            return new Locale(parts[0], country, variant.toString());
+        }
+        try {
+            return new Locale.Builder().setLanguage(parts[0]).setScript(script)
+                    .setRegion(country).setVariant(variant.toString()).build();
+        } catch (IllformedLocaleException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isAlpha(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add the names of the files in the directory of a resource.
+     *
+     * @param url a resource in the directory, or the directory itself.
+     * @param directory the path of the directory, with a trailing slash,
+     * or empty for the root.
+     * @return whether the directory could be listed.
+     */
+    private static boolean list(URL url, String directory, Set<String> fileNames) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            File file;
+            try {
+                file = new File(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                return false;
+            }
+            File dir = file.isDirectory() ? file : file.getParentFile();
+            String[] names = dir != null ? dir.list() : null;
+            if (names == null) {
+                return false;
+            }
+            fileNames.addAll(Arrays.asList(names));
+            return true;
+        }
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof JarURLConnection)) {
+            return false;
+        }
+        // the jar is shared with the class loader, so it is left open.
+        JarFile jar = ((JarURLConnection) connection).getJarFile();
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(directory) && name.indexOf('/', directory.length()) < 0) {
+                fileNames.add(name.substring(directory.length()));
+            }
+        }
+        return true;
+    }
+
+    private static ResourceBundle.Control control() {
+        return ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_DEFAULT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Locale;
+
+/**
+ * Parses byte sizes, like {@code 512}, {@code 64KB} or {@code 2g}. The units,
+ * not case sensitive, are {@code B}, {@code K}, {@code M}, {@code G} and
+ * {@code T}, optionally followed by {@code B} or {@code iB}, and are all
+ * powers of 1024. A number without a unit is in bytes.
+ *
+ * @author Paul Samsotha
+ */
+final class ByteSizes {
+
+    private ByteSizes() {}
+
+    /**
+     * Parse the byte size.
+     *
+     * @param value the byte size.
+     * @return the number of bytes.
+     * @throws IllegalArgumentException if the value is not a byte size.
+     */
+    static long parse(String value) {
+        String trimmed = value.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isDigit(trimmed.charAt(end))) {
+            end++;
+        }
+        if (end == 0) {
+            throw new IllegalArgumentException("Invalid byte size: " + value);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(trimmed.substring(0, end));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid byte size: " + value, ex);
+        }
+        int shift = shift(trimmed.substring(end).trim().toUpperCase(Locale.ROOT));
+        if (shift < 0) {
+            throw new IllegalArgumentException("Invalid byte size unit: " + value);
+        }
+        if (amount > (Long.MAX_VALUE >> shift)) {
+            throw new IllegalArgumentException("Byte size too large: " + value);
+        }
+        return amount << shift;
+    }
+
+    private static int shift(String unit) {
+        if (unit.isEmpty() || unit.equals("B")) {
+            return 0;
+        }
+        String prefix = unit.endsWith("IB") ? unit.substring(0, unit.length() - 2)
+                : unit.endsWith("B") ? unit.substring(0, unit.length() - 1) : unit;
+        switch (prefix) {
+            case "K":
+                return 10;
+            case "M":
+                return 20;
+            case "G":
+                return 30;
+            case "T":
+                return 40;
+            default:
+                return -1;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import javax.ws.rs.core.MultivaluedMap;
-import org.glassfish.jersey.server.model.Parameter;
 
 /**
  * This class is not meant to be used as a {@code MultivaluedMap} will map
@@ -18,8 +17,9 @@ import org.glassfish.jersey.server.model.Parameter;
  * methods, are pretty much moot as they will not be used. This class is only
  * meant to be used internally.
  *
- * Concrete subclasses should have a caching mechanism to cache the parameter
- * value, with a {@code Parameter} type key.
+ * Concrete subclasses assign each supported locale a dense index, so that
+ * value factories can cache converted values in a small array, instead of
+ * keying a map by {@code Parameter} and {@code Locale}.
  *
  * @author Paul Samsotha
  */
@@ -27,6 +27,7 @@ abstract class ConfigProperties<K, V> implements MultivaluedMap<String, String>
 
     protected final Locale defaultLocale;
     protected final Map<K, V> delegate;
+    private volatile PrefixIndex prefixIndex;
 
     /**
      * Construct a {@code ConfigProperties} with a default locale and the
@@ -47,20 +48,54 @@ abstract class ConfigProperties<K, V> implements MultivaluedMap<String, String>
     }
 
     /**
-     * Retrieves the cached value for the {@code Parameter} key.
+     * Get the dense index for the locale, in the range
+     * {@code [0, localeCount())}. Locales without an index of their own, and
+     * {@code null}, map to the index of the default locale.
      *
-     * @param parameter the method parameter used as the cache key.
-     * @return the cached value for the {@code Parameter).
+     * @param locale the locale, may be {@code null}.
+     * @return the locale index.
      */
-    abstract Object getCachedPropery(Parameter parameter);
+    abstract int localeIndex(Locale locale);
 
     /**
-     * Puts a new value into the cache with the {@code Parameter} key.
+     * Get the number of locale indexes.
      *
-     * @param key the method parameter object
-     * @param value the value to cache.
+     * @return the locale count.
      */
-    abstract void putCachedProperty(Parameter key, Object value);
+    abstract int localeCount();
+
+    /**
+     * Get the properties for the locale index, to be passed to the parameter
+     * extractor. The locale is passed explicitly, instead of being bound to
+     * the current thread, so lookups work the same on any thread.
+     *
+     * @param localeIndex the locale index.
+     * @return the properties for the locale.
+     */
+    abstract MultivaluedMap<String, String> forLocaleIndex(int localeIndex);
+
+    /**
+     * Get the properties whose keys start with the prefix, without the
+     * prefix. The keys are indexed on first use.
+     *
+     * @param prefix the prefix, like {@code feature.flags.}.
+     * @return the properties, in key order, unmodifiable.
+     */
+    Map<String, String> withPrefix(String prefix) {
+        PrefixIndex index = prefixIndex;
+        if (index == null) {
+            index = newPrefixIndex();
+            prefixIndex = index;
+        }
+        return index.withPrefix(prefix);
+    }
+
+    /**
+     * Create the prefix index of the properties.
+     *
+     * @return the index.
+     */
+    abstract PrefixIndex newPrefixIndex();
 
     protected static final String UNSUPPORTED_MESSAGE = "ConfigProperties is immutable.";
 
@@ -1,23 +1,67 @@
 
 package com.github.psamsotha.jersey.properties;
 
+import javax.ws.rs.container.ContainerRequestContext;
 import org.glassfish.hk2.api.Factory;
 
 /**
+ * Holds the current {@code ConfigSnapshot}. When reload is enabled, a new
+ * snapshot is published with a single volatile write, so readers never block,
+ * and never see a half-applied configuration.
  *
  * @author Paul Samsotha
  */
 final class ConfigPropertiesFactory implements Factory<ConfigProperties> {
+
+    /**
+     * Request property holding the {@code ConfigSnapshot} pinned by the request.
+     */
+    static final String SNAPSHOT_PROPERTY = "com.github.psamsotha.jersey.properties.snapshot";
     
-    private final ConfigProperties configProperties;
+    private volatile ConfigSnapshot snapshot;
     
     ConfigPropertiesFactory(ConfigProperties configProperties) {
-        this.configProperties = configProperties;
+        this.snapshot = new ConfigSnapshot(0, configProperties);
+    }
+
+    /**
+     * Publish new properties, as the next snapshot version.
+     *
+     * @param configProperties the new properties.
+     */
+    synchronized void publish(ConfigProperties configProperties) {
+        this.snapshot = new ConfigSnapshot(snapshot.getVersion() + 1, configProperties);
+    }
+
+    /**
+     * Get the current snapshot.
+     *
+     * @return the current snapshot.
+     */
+    ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the snapshot pinned by the request, pinning the current snapshot if
+     * the request has none yet.
+     *
+     * @param request the request.
+     * @return the request's snapshot.
+     */
+    ConfigSnapshot pin(ContainerRequestContext request) {
+        Object pinned = request.getProperty(SNAPSHOT_PROPERTY);
+        if (pinned instanceof ConfigSnapshot) {
+            return (ConfigSnapshot) pinned;
+        }
+        ConfigSnapshot current = snapshot;
+        request.setProperty(SNAPSHOT_PROPERTY, current);
+        return current;
     }
 
     @Override
     public ConfigProperties provide() {
-        return configProperties;
+        return snapshot.getProperties();
     }
 
     @Override
@@ -0,0 +1,31 @@
+package com.github.psamsotha.jersey.properties;
+
+/**
+ * An immutable version of the configuration. Each published configuration has
+ * a higher version than the one before it. A request pins one snapshot, so
+ * all of its properties are read from the same version, and value caches are
+ * tagged with the version they were computed from.
+ *
+ * @author Paul Samsotha
+ */
+final class ConfigSnapshot {
+
+    private final long version;
+    private final ConfigProperties<?, ?> properties;
+
+    ConfigSnapshot(long version, ConfigProperties<?, ?> properties) {
+        if (properties == null) {
+            throw new NullPointerException("Snapshot properties must not be null.");
+        }
+        this.version = version;
+        this.properties = properties;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    ConfigProperties<?, ?> getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.psamsotha.jersey.properties;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.server.internal.inject.ExtractorException;
+import org.glassfish.jersey.server.internal.inject.MultivaluedParameterExtractor;
+
+/**
+ * Extracts a property with a built-in {@code PropertyConverter}, instead of
+ * the reflective conversions of Jersey's extractors. A missing property uses
+ * the JAX-RS {@code DefaultValue}, if there is one, like Jersey's extractors.
+ *
+ * @author Paul Samsotha
+ */
+final class ConvertingExtractor<T> implements MultivaluedParameterExtractor<T> {
+
+    private final String name;
+    private final String defaultValue;
+    private final Class<?> type;
+    private final PropertyConverter<T> converter;
+    private final PropertyConverters converters;
+
+    ConvertingExtractor(String name, String defaultValue, Class<?> type,
+            PropertyConverter<T> converter, PropertyConverters converters) {
+        this.name = name;
+        this.defaultValue = defaultValue;
+        this.type = type;
+        this.converter = converter;
+        this.converters = converters;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDefaultValueString() {
+        return defaultValue;
+    }
+
+    @Override
+    public T extract(MultivaluedMap<String, String> parameters) {
+        String value = parameters.getFirst(name);
+        if (value == null || converter.isMissing(value)) {
+            if (defaultValue == null) {
+                return converter.missingValue();
+            }
+            value = defaultValue;
+        }
+        try {
+            return converters.convert(converter, type, value);
+        } catch (RuntimeException ex) {
+            throw new ExtractorException(ex);
+        }
+    }
+}
@@ -10,8 +10,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import org.glassfish.jersey.server.model.Parameter;
+import javax.ws.rs.core.MultivaluedMap;
 
 /**
  *
@@ -19,20 +18,28 @@ import org.glassfish.jersey.server.model.Parameter;
  */
 class DefaultConfigProperties extends ConfigProperties<String, String> {
     
-    private final Map<Parameter, Object> cachedProperties = new ConcurrentHashMap<Parameter, Object>();
-    
     DefaultConfigProperties(Locale defaultLocale, Map<String, String> delegate) {
         super(defaultLocale, delegate);
     }
 
     @Override
-    Object getCachedPropery(Parameter parameter) {
-        return cachedProperties.get(parameter);
+    int localeIndex(Locale locale) {
+        return 0;
+    }
+
+    @Override
+    int localeCount() {
+        return 1;
+    }
+
+    @Override
+    MultivaluedMap<String, String> forLocaleIndex(int localeIndex) {
+        return this;
     }
 
     @Override
-    void putCachedProperty(Parameter key, Object value) {
-        cachedProperties.put(key, value);
+    PrefixIndex newPrefixIndex() {
+        return PrefixIndex.of(delegate);
     }
 
     @Override
@@ -1,17 +1,20 @@
 package com.github.psamsotha.jersey.properties;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Default properties provider. Will turn a [@code Properties} object into a
+ * Default properties provider. Will parse a class-path properties file into a
  * map.
  *
  * @author Paul Samsotha
@@ -23,8 +26,9 @@ class DefaultPropertiesProvider implements PropertiesProvider {
     private final Map<String, String> propertiesMap;
 
     public DefaultPropertiesProvider(String propertiesPath) {
-        Properties properties = loadPropsFromPath(propertiesPath);
-        propertiesMap = mapFromProperties(properties);
+        Map<String, String> map = new HashMap<String, String>();
+        loadInto(propertiesPath, map);
+        propertiesMap = Collections.unmodifiableMap(map);
     }
 
     @Override
@@ -32,40 +36,54 @@ class DefaultPropertiesProvider implements PropertiesProvider {
         return propertiesMap;
     }
 
-    private Map<String, String> mapFromProperties(Properties properties) {
-        Map<String, String> map = new HashMap<String, String>();
-        Enumeration propNames = properties.propertyNames();
-        while (propNames.hasMoreElements()) {
-            String next = (String) propNames.nextElement();
-            map.put(next, properties.getProperty(next));
-        }
-        return Collections.unmodifiableMap(map);
-    }
-
-    private Properties loadPropsFromPath(String path) {
-        Properties properties = new Properties();
-        InputStream is = this.getClass().getResourceAsStream(path);
-        if (is == null) {
-            is = this.getClass().getClassLoader().getResourceAsStream(path);
+    /**
+     * Parse the properties file straight into the map, without an
+     * intermediate {@code Properties} object. A file on the file system is
+     * read through its {@code FileChannel}. Errors are logged, and do not
+     * fail.
+     *
+     * @param path the class-path resource path of the properties file.
+     * @param target the map to put the properties in.
+     * @return whether the file was loaded.
+     */
+    static boolean loadInto(String path, Map<String, String> target) {
+        URL url = DefaultPropertiesProvider.class.getResource(path);
+        if (url == null) {
+            url = DefaultPropertiesProvider.class.getClassLoader().getResource(path);
         }
-        if (is == null) {
+        if (url == null) {
             LOGGER.log(Level.WARNING, "Error loading resource with path {0}. "
                     + "Properties will not correctly set", new Object[]{path});
+            return false;
         }
+        ReadableByteChannel channel = null;
         try {
-            properties.load(is);
+            channel = openChannel(url);
+            PropertiesParser.parse(channel, target);
+            return true;
         } catch (IOException ex) {
             LOGGER.log(Level.WARNING, "Error loading Properties.", ex);
             // does not fail.
+            return false;
         } finally {
-            if (is != null) {
+            if (channel != null) {
                 try {
-                    is.close();
+                    channel.close();
                 } catch (IOException ex) {
                     throw new RuntimeException("Error closing stream.", ex);
                 }
-            } 
+            }
+        }
+    }
+
+    private static ReadableByteChannel openChannel(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new FileInputStream(new File(url.toURI())).getChannel();
+            } catch (URISyntaxException ex) {
+                // fall back to the URL stream.
+            }
         }
-        return properties;
+        return Channels.newChannel(url.openStream());
     }
 }
@@ -0,0 +1,131 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.server.internal.inject.ExtractorException;
+import org.glassfish.jersey.server.internal.inject.MultivaluedParameterExtractor;
+
+/**
+ * Extracts a delimited property as an immutable {@code List}, {@code Set} or
+ * {@code SortedSet}, or as an array. The elements are trimmed, empty elements
+ * are skipped, and each element is converted with a built-in
+ * {@code PropertyConverter}. A missing property is an empty collection,
+ * unless there is a default value.
+ *
+ * @author Paul Samsotha
+ */
+final class DelimitedExtractor implements MultivaluedParameterExtractor<Object> {
+
+    /**
+     * The supported shapes of the extracted value.
+     */
+    enum Shape {
+
+        LIST, SET, SORTED_SET, ARRAY;
+
+        /**
+         * Get the shape of the type.
+         *
+         * @param rawType the raw type.
+         * @return the shape, or {@code null} if the type is not supported.
+         */
+        static Shape of(Class<?> rawType) {
+            if (rawType.isArray()) {
+                return ARRAY;
+            } else if (rawType == List.class || rawType == Collection.class) {
+                return LIST;
+            } else if (rawType == Set.class) {
+                return SET;
+            } else if (rawType == SortedSet.class) {
+                return SORTED_SET;
+            }
+            return null;
+        }
+    }
+
+    private final String name;
+    private final String defaultValue;
+    private final String delimiter;
+    private final Shape shape;
+    private final Class<?> elementType;
+    private final PropertyConverter<?> converter;
+    private final PropertyConverters converters;
+
+    DelimitedExtractor(String name, String defaultValue, String delimiter, Shape shape,
+            Class<?> elementType, PropertyConverter<?> converter, PropertyConverters converters) {
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Delimiter must not be empty.");
+        }
+        this.name = name;
+        this.defaultValue = defaultValue;
+        this.delimiter = delimiter;
+        this.shape = shape;
+        this.elementType = elementType;
+        this.converter = converter;
+        this.converters = converters;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDefaultValueString() {
+        return defaultValue;
+    }
+
+    @Override
+    public Object extract(MultivaluedMap<String, String> parameters) {
+        String value = parameters.getFirst(name);
+        if (value == null) {
+            value = defaultValue;
+        }
+        List<Object> elements = new ArrayList<Object>();
+        if (value != null) {
+            try {
+                split(value, elements);
+            } catch (RuntimeException ex) {
+                throw new ExtractorException(ex);
+            }
+        }
+        switch (shape) {
+            case LIST:
+                return Collections.unmodifiableList(elements);
+            case SET:
+                return Collections.unmodifiableSet(new LinkedHashSet<Object>(elements));
+            case SORTED_SET:
+                return Collections.unmodifiableSortedSet(new TreeSet<Object>(elements));
+            default:
+                Object array = Array.newInstance(elementType, elements.size());
+                for (int i = 0; i < elements.size(); i++) {
+                    Array.set(array, i, elements.get(i));
+                }
+                return array;
+        }
+    }
+
+    private void split(String value, List<Object> elements) {
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf(delimiter, start);
+            if (end < 0) {
+                end = value.length();
+            }
+            String element = value.substring(start, end).trim();
+            if (!element.isEmpty()) {
+                elements.add(converters.convert(converter, elementType, element));
+            }
+            start = end + delimiter.length();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses durations, like {@code 500ms}, {@code 30s}, {@code 5m} or
+ * {@code 1h}. The units are {@code ns}, {@code us}, {@code ms}, {@code s},
+ * {@code m} (or {@code min}), {@code h} and {@code d}. A number without a unit
+ * is in milliseconds.
+ *
+ * @author Paul Samsotha
+ */
+final class Durations {
+
+    private Durations() {}
+
+    /**
+     * Parse the duration.
+     *
+     * @param value the duration.
+     * @return the duration in nanoseconds.
+     * @throws IllegalArgumentException if the value is not a duration.
+     */
+    static long parseNanos(String value) {
+        String trimmed = value.trim();
+        int end = numberEnd(trimmed);
+        if (end == 0) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(trimmed.substring(0, end));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid duration: " + value, ex);
+        }
+        TimeUnit unit = unit(trimmed.substring(end).trim().toLowerCase(Locale.ROOT));
+        if (unit == null) {
+            throw new IllegalArgumentException("Invalid duration unit: " + value);
+        }
+        return unit.toNanos(amount);
+    }
+
+    private static int numberEnd(String value) {
+        int i = 0;
+        if (i < value.length() && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        while (i < value.length() && Character.isDigit(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static TimeUnit unit(String unit) {
+        switch (unit) {
+            case "ns":
+                return TimeUnit.NANOSECONDS;
+            case "us":
+                return TimeUnit.MICROSECONDS;
+            case "":
+            case "ms":
+                return TimeUnit.MILLISECONDS;
+            case "s":
+                return TimeUnit.SECONDS;
+            case "m":
+            case "min":
+                return TimeUnit.MINUTES;
+            case "h":
+                return TimeUnit.HOURS;
+            case "d":
+                return TimeUnit.DAYS;
+            default:
+                return null;
+        }
+    }
+}
@@ -1,78 +1,441 @@
 package com.github.psamsotha.jersey.properties;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.concurrent.ConcurrentHashMap;
-import org.glassfish.jersey.server.model.Parameter;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.ws.rs.core.MultivaluedMap;
 
 /**
  * i18n implementation of {@code ConfigProperties} with underlying resource
  * bundles.
  *
+ * At startup, the locales that have a bundle file of their own are found by
+ * listing the files of the bundle on the class-path, or are given
+ * explicitly; bundles are loaded on the first use of their locale. The delegate map holds the dense index of each of those locales,
+ * plus the default locale. Any other locale (for instance an arbitrary
+ * {@code Accept-Language} tag) is never added; it collapses onto the index of
+ * its fallback, so the per-parameter caches are bounded by the number of
+ * bundle files.
+ *
+ * Each indexed locale has a fallback chain, computed once, following its
+ * variant, country and language, then the root bundle, then the same for the
+ * default locale; for example {@code de_DE -> de -> root -> en_US -> en}. A
+ * key missing from the whole chain is {@code null}.
+ *
+ * Optionally, all bundles are loaded up front and compiled into a
+ * {@code MessageTable}, so lookups do not go through {@code ResourceBundle}.
+ * Or the messages, with the fallbacks resolved, are read from a precompiled
+ * {@code SnapshotFile}, and no bundle is loaded at all.
+ *
  * @author Paul Samsotha
  */
-class I18NConfigProperties extends ConfigProperties<Locale, ResourceBundle> {
+class I18NConfigProperties extends ConfigProperties<Locale, Integer> {
+
+    private static final Logger LOGGER = Logger.getLogger(I18NConfigProperties.class.getName());
 
-    private final Map<Parameter, Map<Locale, Object>> cachedBundles
-            = new ConcurrentHashMap<Parameter, Map<Locale, Object>>();
+    private final String bundleName;
+    private final Locale[] locales;
+    private final AtomicReferenceArray<BundleProperties> bundleProperties;
+    private final int[][] fallbackChains;
+    private final int defaultLocaleIndex;
+    private final LocaleNegotiator localeNegotiator;
+    private final MessageTable messageTable;
+    private final Map<String, String>[] snapshotTables;
+    private final int bundleLocaleCount;
 
-    I18NConfigProperties(Locale defaultLocale, Map<Locale, ResourceBundle> delegate) {
-        super(defaultLocale, delegate);
+    I18NConfigProperties(Locale defaultLocale, String bundleName) {
+        this(defaultLocale, bundleName, LocaleNegotiator.DEFAULT_CACHE_SIZE, false);
     }
 
-    @Override
-    Object getCachedPropery(Parameter parameter) {
-        Locale locale = ThreadLocalLocale.get();
-        Map<Locale, Object> props = cachedBundles.get(parameter);
-        if (props == null) {
-            props = new ConcurrentHashMap<Locale, Object>();
-            cachedBundles.put(parameter, props);
-            return null;
+    I18NConfigProperties(Locale defaultLocale, String bundleName, int localeCacheSize, boolean compile) {
+        this(defaultLocale, bundleName, null, localeCacheSize, compile);
+    }
+
+    /**
+     * @param defaultLocale the default locale.
+     * @param bundleName the bundle base name.
+     * @param locales the locales that have a bundle, or {@code null} to find
+     * them on the class-path. The root bundle is always used, if there is
+     * one, and locales without a bundle are left out.
+     * @param localeCacheSize the negotiated locale cache size.
+     * @param compile whether to compile all the bundles at startup.
+     */
+    I18NConfigProperties(Locale defaultLocale, String bundleName, List<Locale> locales,
+            int localeCacheSize, boolean compile) {
+        this(defaultLocale, bundleName, findBundleLocales(bundleName, locales), localeCacheSize, compile, null);
+    }
+
+    /**
+     * Create the properties from the bundle messages of a snapshot file.
+     *
+     * @param defaultLocale the default locale, which must be the one the
+     * snapshot was compiled with.
+     * @param snapshot the snapshot file.
+     * @param localeCacheSize the negotiated locale cache size.
+     */
+    I18NConfigProperties(Locale defaultLocale, SnapshotFile snapshot, int localeCacheSize) {
+        this(defaultLocale, snapshotBundleName(defaultLocale, snapshot),
+                snapshot.getBundleLocales(), localeCacheSize, false, snapshot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private I18NConfigProperties(Locale defaultLocale, String bundleName,
+            List<Locale> bundleLocales, int localeCacheSize, boolean compile, SnapshotFile snapshot) {
+        super(defaultLocale, indexLocales(bundleLocales, defaultLocale));
+        this.bundleName = bundleName;
+        this.bundleLocaleCount = bundleLocales.size();
+        this.locales = delegate.keySet().toArray(new Locale[delegate.size()]);
+        this.bundleProperties = new AtomicReferenceArray<BundleProperties>(locales.length);
+        this.defaultLocaleIndex = delegate.get(defaultLocale);
+        this.fallbackChains = new int[locales.length][];
+        for (int i = 0; i < locales.length; i++) {
+            fallbackChains[i] = fallbackChain(locales[i]);
+        }
+
+        if (snapshot != null) {
+            this.snapshotTables = new Map[locales.length];
+            for (int i = 0; i < locales.length; i++) {
+                snapshotTables[i] = snapshot.getMessages(locales[i]);
+                if (snapshotTables[i] == null) {
+                    throw new IllegalStateException("Snapshot has no messages for locale " + locales[i] + ".");
+                }
+            }
+        } else {
+            this.snapshotTables = null;
+            // fail at startup, not on the first request, if the bundle is missing.
+            forLocaleIndex(defaultLocaleIndex);
+        }
+
+        if (compile && snapshot == null) {
+            ResourceBundle[] bundles = new ResourceBundle[locales.length];
+            for (int i = 0; i < locales.length; i++) {
+                bundles[i] = ((BundleProperties) forLocaleIndex(i)).bundle;
+            }
+            this.messageTable = MessageTable.compile(bundles, fallbackChains);
         } else {
-            return props.get(locale);
+            this.messageTable = null;
         }
+
+        List<Locale> supportedLocales = new ArrayList<Locale>(bundleLocales);
+        supportedLocales.remove(Locale.ROOT);
+        this.localeNegotiator = new LocaleNegotiator(supportedLocales, defaultLocale, localeCacheSize);
     }
 
-    @Override
-    void putCachedProperty(Parameter key, Object value) {
-        Map<Locale, Object> props = cachedBundles.get(key);
-        if (props == null) {
-            props = new ConcurrentHashMap<Locale, Object>();
+    private static String snapshotBundleName(Locale defaultLocale, SnapshotFile snapshot) {
+        if (snapshot.getBundleName() == null) {
+            throw new IllegalStateException("Snapshot has no resource bundle.");
         }
-        Locale locale = ThreadLocalLocale.get();
-        if (locale == null) {
-            locale = defaultLocale;
+        if (!defaultLocale.equals(snapshot.getDefaultLocale())) {
+            throw new IllegalStateException("Snapshot was compiled for default locale "
+                    + snapshot.getDefaultLocale() + ", not " + defaultLocale + ".");
+        }
+        return snapshot.getBundleName();
+    }
+
+    private static Map<Locale, Integer> indexLocales(List<Locale> bundleLocales, Locale defaultLocale) {
+        Map<Locale, Integer> indexes = new LinkedHashMap<Locale, Integer>();
+        for (Locale locale : bundleLocales) {
+            indexes.put(locale, indexes.size());
+        }
+        if (!indexes.containsKey(defaultLocale)) {
+            indexes.put(defaultLocale, indexes.size());
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * Compute the fallback chain of locale indexes for the locale.
+     */
+    private int[] fallbackChain(Locale locale) {
+        List<Locale> candidates = candidateLocales(locale);
+        candidates.add(Locale.ROOT);
+        candidates.addAll(candidateLocales(defaultLocale));
+
+        List<Integer> chain = new ArrayList<Integer>();
+        for (Locale candidate : candidates) {
+            Integer index = delegate.get(candidate);
+            if (index != null && !chain.contains(index)) {
+                chain.add(index);
+            }
+        }
+        int[] indexes = new int[chain.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = chain.get(i);
+        }
+        return indexes;
+    }
+
+    private static List<Locale> candidateLocales(Locale locale) {
+        List<Locale> candidates = new ArrayList<Locale>();
+        candidates.add(locale);
+        if (!locale.getVariant().isEmpty() || !locale.getScript().isEmpty()) {
+            candidates.add(new Locale(locale.getLanguage(), locale.getCountry()));
+        }
+        if (!locale.getCountry().isEmpty()) {
+            candidates.add(new Locale(locale.getLanguage()));
+        }
+        return candidates;
+    }
+
+    /**
+     * Get the locales that have a bundle file, without loading any bundle.
+     *
+     * @param bundleName the bundle base name.
+     * @param locales the configured locales, or {@code null} to find them.
+     * @return the locales with a bundle.
+     */
+    private static List<Locale> findBundleLocales(String bundleName, List<Locale> locales) {
+        ClassLoader loader = I18NConfigProperties.class.getClassLoader();
+        if (loader == null) {
+            loader = ClassLoader.getSystemClassLoader();
+        }
+        if (locales == null) {
+            return BundleLocales.find(bundleName, loader);
+        }
+        List<Locale> found = BundleLocales.withBundle(bundleName, locales, loader);
+        for (Locale locale : locales) {
+            if (!found.contains(locale)) {
+                LOGGER.log(Level.WARNING, "Locale {0} has no {1} bundle, and is left out.",
+                        new Object[]{locale.toLanguageTag(), bundleName});
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the negotiator that resolves {@code Accept-Language} headers against
+     * the locales that have a bundle.
+     *
+     * @return the locale negotiator.
+     */
+    LocaleNegotiator getLocaleNegotiator() {
+        return localeNegotiator;
+    }
+
+    /**
+     * Whether all the messages are loaded up front, compiled or from a
+     * snapshot, so that resolving a property for every locale loads nothing.
+     *
+     * @return whether the messages are preloaded.
+     */
+    boolean isPreloaded() {
+        return messageTable != null || snapshotTables != null;
+    }
+
+    String getBundleName() {
+        return bundleName;
+    }
+
+    Locale localeAt(int localeIndex) {
+        return locales[localeIndex];
+    }
+
+    /**
+     * Whether the locale has a bundle file of its own. Only the default
+     * locale can be indexed without one.
+     *
+     * @param localeIndex the locale index.
+     * @return whether the locale has a bundle.
+     */
+    boolean hasOwnBundle(int localeIndex) {
+        return localeIndex < bundleLocaleCount;
+    }
+
+    /**
+     * Get all the messages of the locale, with the fallbacks resolved.
+     *
+     * @param localeIndex the locale index.
+     * @return the messages.
+     */
+    Map<String, String> resolvedMessages(int localeIndex) {
+        if (snapshotTables != null) {
+            return new HashMap<String, String>(snapshotTables[localeIndex]);
         }
-        props.put(locale, value);
-        cachedBundles.put(key, props);
+        MultivaluedMap<String, String> properties = forLocaleIndex(localeIndex);
+        Map<String, String> messages = new HashMap<String, String>();
+        for (int index : fallbackChains[localeIndex]) {
+            for (String key : ((BundleProperties) forLocaleIndex(index)).bundle.keySet()) {
+                if (!messages.containsKey(key)) {
+                    String value = properties.getFirst(key);
+                    if (value != null) {
+                        messages.put(key, value);
+                    }
+                }
+            }
+        }
+        return messages;
     }
 
     @Override
-    public String getFirst(String key) {
-        Locale locale = ThreadLocalLocale.get();
+    int localeIndex(Locale locale) {
         if (locale == null) {
-            locale = defaultLocale;
+            return defaultLocaleIndex;
         }
-        ResourceBundle bundle = delegate.get(locale);
-        if (bundle == null) {
-            locale = defaultLocale;
+        Integer index = delegate.get(locale);
+        if (index == null && (!locale.getVariant().isEmpty() || !locale.getScript().isEmpty())) {
+            index = delegate.get(new Locale(locale.getLanguage(), locale.getCountry()));
         }
-        bundle = delegate.get(locale);
-        return bundle.getString(key);
+        if (index == null && !locale.getCountry().isEmpty()) {
+            index = delegate.get(new Locale(locale.getLanguage()));
+        }
+        return index != null ? index : defaultLocaleIndex;
+    }
+
+    @Override
+    int localeCount() {
+        return locales.length;
+    }
+
+    @Override
+    MultivaluedMap<String, String> forLocaleIndex(int localeIndex) {
+        BundleProperties properties = bundleProperties.get(localeIndex);
+        if (properties == null) {
+            properties = loadBundle(localeIndex);
+        }
+        return properties;
+    }
+
+    /**
+     * Load the bundle for the locale index. Locales that resolve to the same
+     * bundle share one {@code BundleProperties}.
+     */
+    private BundleProperties loadBundle(int localeIndex) {
+        if (snapshotTables != null) {
+            BundleProperties properties = new BundleProperties(null, localeIndex);
+            if (!bundleProperties.compareAndSet(localeIndex, null, properties)) {
+                properties = bundleProperties.get(localeIndex);
+            }
+            return properties;
+        }
+        // the default locale is part of the fallback chain, not the JVM default
+        ResourceBundle bundle = ResourceBundle.getBundle(bundleName, locales[localeIndex],
+                ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT));
+        BundleProperties properties = null;
+        for (int i = 0; i < locales.length && properties == null; i++) {
+            BundleProperties loaded = bundleProperties.get(i);
+            if (loaded != null && loaded.bundle == bundle) {
+                properties = loaded;
+            }
+        }
+        if (properties == null) {
+            properties = new BundleProperties(bundle, localeIndex);
+        }
+        if (!bundleProperties.compareAndSet(localeIndex, null, properties)) {
+            properties = bundleProperties.get(localeIndex);
+        }
+        return properties;
+    }
+
+    /**
+     * Get the number of distinct bundles loaded so far.
+     *
+     * @return the loaded bundle count.
+     */
+    int loadedBundleCount() {
+        List<ResourceBundle> loaded = new ArrayList<ResourceBundle>();
+        for (int i = 0; i < locales.length; i++) {
+            BundleProperties properties = bundleProperties.get(i);
+            if (properties != null && properties.bundle != null && !loaded.contains(properties.bundle)) {
+                loaded.add(properties.bundle);
+            }
+        }
+        return loaded.size();
+    }
+
+    /**
+     * Get the properties with the prefix from the default locale's bundle.
+     * Use {@link #forLocaleIndex(int)} for any other locale.
+     */
+    @Override
+    Map<String, String> withPrefix(String prefix) {
+        return ((ConfigProperties<?, ?>) forLocaleIndex(defaultLocaleIndex)).withPrefix(prefix);
+    }
+
+    @Override
+    PrefixIndex newPrefixIndex() {
+        return ((ConfigProperties<?, ?>) forLocaleIndex(defaultLocaleIndex)).newPrefixIndex();
+    }
+
+    /**
+     * Get the property from the default locale's bundle. Use
+     * {@link #forLocaleIndex(int)} for any other locale.
+     */
+    @Override
+    public String getFirst(String key) {
+        return forLocaleIndex(defaultLocaleIndex).getFirst(key);
     }
 
     @Override
     public List<String> get(Object key) {
-        Locale locale = ThreadLocalLocale.get();
-        if (locale == null) {
-            locale = defaultLocale;
+        return forLocaleIndex(defaultLocaleIndex).get(key);
+    }
+
+    /**
+     * The properties of a single bundle.
+     */
+    private final class BundleProperties extends ConfigProperties<Locale, Integer> {
+
+        private final ResourceBundle bundle;
+        private final int localeIndex;
+
+        BundleProperties(ResourceBundle bundle, int localeIndex) {
+            super(I18NConfigProperties.this.defaultLocale, I18NConfigProperties.this.delegate);
+            this.bundle = bundle;
+            this.localeIndex = localeIndex;
+        }
+
+        @Override
+        int localeIndex(Locale locale) {
+            return I18NConfigProperties.this.localeIndex(locale);
+        }
+
+        @Override
+        int localeCount() {
+            return I18NConfigProperties.this.localeCount();
+        }
+
+        @Override
+        MultivaluedMap<String, String> forLocaleIndex(int localeIndex) {
+            return I18NConfigProperties.this.forLocaleIndex(localeIndex);
+        }
+
+        @Override
+        PrefixIndex newPrefixIndex() {
+            return PrefixIndex.of(resolvedMessages(localeIndex));
+        }
+
+        @Override
+        public String getFirst(String key) {
+            if (snapshotTables != null) {
+                return snapshotTables[localeIndex].get(key);
+            }
+            if (messageTable != null) {
+                return messageTable.get(localeIndex, messageTable.keyId(key));
+            }
+            for (int index : fallbackChains[localeIndex]) {
+                ResourceBundle fallback = index == localeIndex
+                        ? bundle : ((BundleProperties) forLocaleIndex(index)).bundle;
+                if (fallback.containsKey(key)) {
+                    Object value = fallback.getObject(key);
+                    return value instanceof String ? (String) value : null;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<String> get(Object key) {
+            String value = getFirst((String) key);
+            return value != null ? Collections.unmodifiableList(Arrays.asList(value)) : null;
         }
-        ResourceBundle bundle = delegate.get(locale);
-        String value = bundle.getString((String) key);
-        return value == null ? Collections.unmodifiableList(Arrays.asList(value)) : null;
     }
 }
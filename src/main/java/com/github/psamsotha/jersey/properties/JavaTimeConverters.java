@@ -0,0 +1,72 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Converters for {@code java.time} types. The library is built for Java 7, so
+ * the types are only used through reflection, once {@code forType} has found
+ * one of them; the conversions are cached, so the reflective calls are only
+ * made once per value.
+ *
+ * @author Paul Samsotha
+ */
+final class JavaTimeConverters {
+
+    static final String DURATION = "java.time.Duration";
+
+    private JavaTimeConverters() {}
+
+    /**
+     * Get the converter of {@code java.time.Duration}, which takes an ISO-8601
+     * duration, like {@code PT30S}, or a number with a unit, like {@code 30s}.
+     *
+     * @param type the {@code Duration} class.
+     * @return the converter.
+     */
+    static PropertyConverter<?> duration(Class<?> type) {
+        try {
+            return new DurationConverter(type.getMethod("parse", CharSequence.class),
+                    type.getMethod("ofNanos", long.class));
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("Unexpected " + DURATION + " class.", ex);
+        }
+    }
+
+    private static final class DurationConverter extends PropertyConverter<Object> {
+
+        private final Method parse;
+        private final Method ofNanos;
+
+        DurationConverter(Method parse, Method ofNanos) {
+            super(true);
+            this.parse = parse;
+            this.ofNanos = ofNanos;
+        }
+
+        @Override
+        Object convert(String value) {
+            String trimmed = value.trim();
+            if (trimmed.startsWith("P") || trimmed.startsWith("p")
+                    || trimmed.startsWith("-P") || trimmed.startsWith("-p")) {
+                return invoke(parse, trimmed);
+            }
+            return invoke(ofNanos, Durations.parseNanos(trimmed));
+        }
+
+        private static Object invoke(Method method, Object argument) {
+            try {
+                return method.invoke(null, argument);
+            } catch (InvocationTargetException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    // like a DateTimeParseException, for an invalid value.
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalArgumentException(cause);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
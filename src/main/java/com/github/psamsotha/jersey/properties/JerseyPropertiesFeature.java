@@ -1,10 +1,14 @@
 package com.github.psamsotha.jersey.properties;
 
-import java.util.Collections;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.inject.Singleton;
@@ -51,19 +55,142 @@ public class JerseyPropertiesFeature implements Feature {
      */
     public static final String DEFAULT_LOCALE = "com.github.psamsotha.jersey.properties.DefaultLocale";
 
+    /**
+     * The locales that have a bundle of the {@code RESOURCE_BUNDLE}, as
+     * comma separated language tags, like {@code en-US, de, sr-Latn}. The
+     * root bundle is always used, if there is one. If not specified, the
+     * locales are found by listing the files of the bundle on the class-path.
+     */
+    public static final String BUNDLE_LOCALES = "com.github.psamsotha.jersey.properties.BundleLocales";
+
+    /**
+     * The maximum number of distinct {@code Accept-Language} header values
+     * whose negotiated locale is memoized, for i18n support. Defaults to 512.
+     */
+    public static final String LOCALE_CACHE_SIZE = "com.github.psamsotha.jersey.properties.LocaleCacheSize";
+
+    /**
+     * Compile all the bundles of the {@code RESOURCE_BUNDLE} into one
+     * immutable message table when the feature is configured, instead of
+     * loading each bundle lazily. Lookups then do not go through
+     * {@code ResourceBundle} at all. Defaults to {@code false}.
+     */
+    public static final String COMPILE_RESOURCE_BUNDLES = "com.github.psamsotha.jersey.properties.CompileResourceBundles";
+
+    /**
+     * Enable hot reload of the {@code RESOURCE_PATH} properties file, when it
+     * resolves to a file on the file system. The file is watched for changes,
+     * and re-read off the request path. Used only for the default (non-i18n)
+     * feature. Defaults to {@code false}.
+     */
+    public static final String ENABLE_RELOAD = "com.github.psamsotha.jersey.properties.enableReload";
+
+    /**
+     * Store the merged properties packed into a few arrays, instead of a
+     * {@code HashMap}, for a much smaller retained heap with large property
+     * sets. Lookups binary search the sorted keys. Used only for the default
+     * (non-i18n) feature. Defaults to {@code false}.
+     */
+    public static final String COMPACT_PROPERTIES = "com.github.psamsotha.jersey.properties.CompactProperties";
+
+    /**
+     * The file system path of a binary snapshot file, compiled at build time
+     * with {@link SnapshotCompiler}. The file is memory-mapped, and its
+     * properties are used instead of the {@code RESOURCE_PATH} properties
+     * file, or its bundle messages instead of the {@code RESOURCE_BUNDLE}
+     * when i18n is enabled. Nothing is parsed at startup.
+     */
+    public static final String SNAPSHOT_FILE = "com.github.psamsotha.jersey.properties.SnapshotFile";
+
+    /**
+     * The maximum number of user defined {@code PropertiesProvider}s loaded
+     * at the same time. Providers are loaded concurrently, and merged in
+     * the order they were registered. Defaults to 8.
+     */
+    public static final String PROVIDER_THREADS = "com.github.psamsotha.jersey.properties.ProviderThreads";
+
+    /**
+     * The timeout, in milliseconds, for each user defined
+     * {@code PropertiesProvider} to load. The properties of a provider that
+     * times out are skipped, with a warning. Defaults to 0, for no timeout.
+     */
+    public static final String PROVIDER_TIMEOUT = "com.github.psamsotha.jersey.properties.ProviderTimeout";
+
+    /**
+     * The maximum number of {@code LazyPropertiesProvider} lookups cached,
+     * including the keys that were not found. Defaults to 1024.
+     */
+    public static final String LAZY_CACHE_SIZE = "com.github.psamsotha.jersey.properties.LazyCacheSize";
+
+    /**
+     * Resolve and convert all the {@code Prop} injection points of the
+     * resource model when the application is initialized, instead of on
+     * their first request. Values that can not be converted are logged
+     * together as a warning, and properties that are not set, and have no
+     * default, at {@code CONFIG}. With i18n, only the default locale is
+     * resolved, unless the bundles are compiled or come from a snapshot.
+     * Defaults to {@code true}.
+     */
+    public static final String RESOLVE_ON_STARTUP = "com.github.psamsotha.jersey.properties.ResolveOnStartup";
+
+    /**
+     * Fail the deployment if any {@code Prop} injection point can not be
+     * resolved on startup, instead of logging the problems. Defaults to
+     * {@code false}.
+     */
+    public static final String FAIL_ON_PROPERTY_ERRORS = "com.github.psamsotha.jersey.properties.FailOnPropertyErrors";
+
+    /**
+     * The default delimiter of the values of {@code Prop} collections and
+     * arrays, used when the {@code Prop} has no delimiter of its own. Defaults
+     * to a comma.
+     */
+    public static final String DELIMITER = "com.github.psamsotha.jersey.properties.Delimiter";
+
+    /**
+     * Expand {@code ${key}}, {@code ${env:VAR}} and {@code ${sys:prop}}
+     * references in property values, once, when the properties are loaded or
+     * reloaded. Defaults to {@code false}. References can name the properties
+     * of a {@code LazyPropertiesProvider} or a {@code SNAPSHOT_FILE}, but the
+     * values of those are not expanded themselves, and neither are the
+     * resource bundles of i18n.
+     */
+    public static final String INTERPOLATE = "com.github.psamsotha.jersey.properties.Interpolate";
+
     /**
      * Disable the default {@code PropertiesProvider}.
      */
     public static final String DISABLE_DEFAULT_PROPERTIES_PROVIDER = "com.github.psamsotha.jersey.properties.DisableDefaultPropertiesProvider";
 
     private final PropertiesProvider[] userDefinedProviders;
+    private final LazyPropertiesProvider[] lazyProviders;
+    private PropertiesProviderLoader providerLoader;
+    private int lazyCacheSize;
+    private boolean interpolate;
 
     public JerseyPropertiesFeature() {
         this(new PropertiesProvider[0]);
     }
 
     public JerseyPropertiesFeature(PropertiesProvider... propertiesProviders) {
+        this(propertiesProviders, new LazyPropertiesProvider[0]);
+    }
+
+    /**
+     * Create the feature with {@code LazyPropertiesProvider}s, which are asked,
+     * in order, for the keys that none of the other sources have, when the
+     * keys are first injected. Lazy providers can not be used with i18n.
+     *
+     * @param lazyProviders the lazy providers.
+     */
+    public JerseyPropertiesFeature(LazyPropertiesProvider... lazyProviders) {
+        this(new PropertiesProvider[0], lazyProviders);
+    }
+
+    public JerseyPropertiesFeature(PropertiesProvider[] propertiesProviders,
+            LazyPropertiesProvider[] lazyProviders) {
         this.userDefinedProviders = propertiesProviders;
+        this.lazyProviders = lazyProviders;
     }
 
     @Override
@@ -75,71 +202,244 @@ public class JerseyPropertiesFeature implements Feature {
         final Map<String, Object> jerseyProps = configurable.getConfiguration().getProperties();
 
         ConfigProperties configProperties;
+        String reloadResourcePath = null;
+        boolean compact = false;
         final Locale defaultLocale 
                 = PropertiesHelper.getValue(jerseyProps, DEFAULT_LOCALE, Locale.getDefault(), null);
 
+        final SnapshotFile snapshot = openSnapshot(jerseyProps);
+        int providerThreads = PropertiesHelper.getValue(jerseyProps, PROVIDER_THREADS,
+                PropertiesProviderLoader.DEFAULT_THREADS, null);
+        long providerTimeout = PropertiesHelper.getValue(jerseyProps, PROVIDER_TIMEOUT, 0L, null);
+        providerLoader = new PropertiesProviderLoader(userDefinedProviders, providerThreads, providerTimeout);
+        lazyCacheSize = PropertiesHelper.getValue(jerseyProps, LAZY_CACHE_SIZE,
+                LazyPropertiesMap.DEFAULT_CACHE_SIZE, null);
+        interpolate = PropertiesHelper.getValue(jerseyProps, INTERPOLATE, false, null);
+
         boolean i18nEnabled = PropertiesHelper.getValue(jerseyProps, ENABLE_I18N, false, null);
         if (i18nEnabled) {
+            if (lazyProviders.length != 0) {
+                throw new IllegalStateException("LazyPropertiesProviders are not supported with " + ENABLE_I18N + ".");
+            }
             String bundleName = PropertiesHelper.getValue(jerseyProps, RESOURCE_BUNDLE, String.class, null);
-            if (bundleName == null) {
+            if (bundleName == null && snapshot == null) {
                 LOGGER.warning("Resource bundle property not set.");
                 throw new RuntimeException("Resource bundle property required for i18n support.");
             }
 
-            Map<Locale, ResourceBundle> bundles = convertResourceBundles(bundleName);
-            configProperties = new I18NConfigProperties(defaultLocale, bundles);
+            int localeCacheSize = PropertiesHelper.getValue(jerseyProps, LOCALE_CACHE_SIZE,
+                    LocaleNegotiator.DEFAULT_CACHE_SIZE, null);
+            boolean compileBundles = PropertiesHelper.getValue(jerseyProps, COMPILE_RESOURCE_BUNDLES, false, null);
+            String bundleLocales = PropertiesHelper.getValue(jerseyProps, BUNDLE_LOCALES, String.class, null);
+            I18NConfigProperties i18nProperties = snapshot != null
+                    ? new I18NConfigProperties(defaultLocale, snapshot, localeCacheSize)
+                    : new I18NConfigProperties(defaultLocale, bundleName, parseLocales(bundleLocales),
+                            localeCacheSize, compileBundles);
+            configurable.register(new LocaleRequestFilter(i18nProperties.getLocaleNegotiator()));
+            configProperties = i18nProperties;
+        } else if (snapshot != null && snapshot.getProperties() != null) {
+
+            Map<String, String> userProperties = new HashMap<String, String>();
+            addUserProvidersToMap(userProperties);
+            configProperties = newDefaultConfigProperties(defaultLocale, new LayeredPropertiesMap(
+                    Arrays.asList(userProperties, snapshot.getProperties(), newMap)),
+                    new LayeredPropertiesMap(Arrays.asList(userProperties, newMap)), false);
         } else {
 
+            String resourcePath = null;
             boolean disableDefaultProvider
                     = PropertiesHelper.getValue(jerseyProps, DISABLE_DEFAULT_PROPERTIES_PROVIDER, false, null);
             if (disableDefaultProvider) {
-                if (userDefinedProviders.length == 0) {
+                if (userDefinedProviders.length == 0 && lazyProviders.length == 0) {
                     LOGGER.log(Level.WARNING, "DefaultPropertiesProvider is disabled, "
                             + "and there are no other PropertyProviders registered.");
                 }
             } else {
-                String resourcePath = PropertiesHelper.getValue(jerseyProps, RESOURCE_PATH, String.class, null);
+                resourcePath = PropertiesHelper.getValue(jerseyProps, RESOURCE_PATH, String.class, null);
                 if (resourcePath == null) {
                     LOGGER.log(Level.WARNING, "Resource path not set. To set a path to a"
                             + " properties file, use the configuration property {0}"
                             + " or disable this warning with property {1}.",
                             new Object[]{RESOURCE_PATH, DISABLE_DEFAULT_PROPERTIES_PROVIDER});
-                } else {
-                    addDefaultProviderToMap(newMap, resourcePath);
-                } 
+                }
             }
 
-            addUserProvidersToMap(newMap);
-            configProperties = new DefaultConfigProperties(defaultLocale, newMap);
+            compact = PropertiesHelper.getValue(jerseyProps, COMPACT_PROPERTIES, false, null);
+            configProperties = newDefaultConfigProperties(defaultLocale, mergeProperties(newMap, resourcePath), compact);
+
+            boolean reloadEnabled = PropertiesHelper.getValue(jerseyProps, ENABLE_RELOAD, false, null);
+            if (reloadEnabled) {
+                if (resourcePath == null) {
+                    LOGGER.log(Level.WARNING, "Reload is enabled, but there is no {0} to watch.", RESOURCE_PATH);
+                }
+                reloadResourcePath = resourcePath;
+            }
         }
 
-        configurable.register(new Binder(new ConfigPropertiesFactory(configProperties)));
+        ConfigPropertiesFactory configPropertiesFactory = new ConfigPropertiesFactory(configProperties);
+        if (reloadResourcePath != null) {
+            registerPropertiesFileWatcher(configurable, configPropertiesFactory,
+                    newMap, reloadResourcePath, defaultLocale, compact);
+        }
+        configurable.register(new Binder(configPropertiesFactory));
+        if (PropertiesHelper.getValue(jerseyProps, RESOLVE_ON_STARTUP, true, null)) {
+            configurable.register(PropertiesStartupValidator.class);
+        }
         return true;
     }
 
     /**
-     * Add user defined {@code PropertiesProvider} to global properties.
+     * Parse the comma separated language tags of {@code BUNDLE_LOCALES}.
      *
-     * @param propertiesMap the global properties map.
+     * @param languageTags the language tags, or {@code null}.
+     * @return the locales, or {@code null} if there are no tags.
      */
-    private void addUserProvidersToMap(Map<String, String> propertiesMap) {
-        if (userDefinedProviders.length != 0) {
-            for (PropertiesProvider provider : userDefinedProviders) {
-                propertiesMap.putAll(provider.getProperties());
+    private static List<Locale> parseLocales(String languageTags) {
+        if (languageTags == null || languageTags.trim().isEmpty()) {
+            return null;
+        }
+        List<Locale> locales = new ArrayList<Locale>();
+        for (String tag : languageTags.split(",")) {
+            if (!tag.trim().isEmpty()) {
+                locales.add(Locale.forLanguageTag(tag.trim()));
             }
         }
+        return locales;
+    }
+
+    /**
+     * Open the {@code SNAPSHOT_FILE}, if it is set.
+     *
+     * @param jerseyProps the configuration properties.
+     * @return the snapshot, or {@code null} if it is not set.
+     */
+    private static SnapshotFile openSnapshot(Map<String, Object> jerseyProps) {
+        String path = PropertiesHelper.getValue(jerseyProps, SNAPSHOT_FILE, String.class, null);
+        if (path == null) {
+            return null;
+        }
+        try {
+            SnapshotFile snapshot = SnapshotFile.open(new File(path));
+            LOGGER.log(Level.INFO, "Using properties snapshot {0}, compiled at {1,date} {1,time}.",
+                    new Object[]{path, new Date(snapshot.getCreatedMillis())});
+            return snapshot;
+        } catch (IOException ex) {
+            throw new RuntimeException("Error opening properties snapshot " + path + ".", ex);
+        }
     }
 
     /**
-     * Add default {@code PropertiesProvider} to global properties.
+     * Merge the properties of all the sources, in order of precedence.
+     *
+     * @param configurationProperties the JAX-RS {@code Configuration} properties.
+     * @param resourcePath the path of the default properties file, or
+     * {@code null} if the default provider is not used.
+     * @return the merged properties.
+     */
+    private Map<String, String> mergeProperties(Map<String, String> configurationProperties, String resourcePath) {
+        Map<String, String> propertiesMap = new HashMap<String, String>(configurationProperties);
+        if (resourcePath != null) {
+            addDefaultProviderToMap(propertiesMap, resourcePath);
+        }
+        addUserProvidersToMap(propertiesMap);
+        return propertiesMap;
+    }
+
+    private DefaultConfigProperties newDefaultConfigProperties(Locale defaultLocale,
+            Map<String, String> properties, boolean compact) {
+        return newDefaultConfigProperties(defaultLocale, properties, properties, compact);
+    }
+
+    /**
+     * Create the {@code DefaultConfigProperties} for the merged properties,
+     * backed by the {@code LazyPropertiesProvider}s, if there are any. The
+     * references in the values are expanded first, if {@code INTERPOLATE} is
+     * set, so injection only ever sees expanded values. References are looked
+     * up through the providers too, but only the values on the heap are
+     * expanded; the ones of a snapshot are used as compiled, and the mapped
+     * file is neither copied nor iterated.
+     *
+     * @param defaultLocale the default locale.
+     * @param properties the merged properties.
+     * @param heapProperties the properties to expand, all the merged
+     * properties but the ones of a snapshot.
+     * @param compact whether to pack the properties.
+     * @return the config properties.
+     */
+    private DefaultConfigProperties newDefaultConfigProperties(Locale defaultLocale,
+            Map<String, String> properties, Map<String, String> heapProperties, boolean compact) {
+        LazyPropertiesMap lazyMap = lazyProviders.length != 0
+                ? new LazyPropertiesMap(properties, lazyProviders, lazyCacheSize) : null;
+        Map<String, String> map = properties;
+        if (interpolate) {
+            Map<String, String> expanded = PropertiesInterpolator.interpolate(heapProperties,
+                    lazyMap != null ? lazyMap : properties);
+            if (!expanded.isEmpty()) {
+                map = new LayeredPropertiesMap(Arrays.asList(expanded, properties));
+            }
+        }
+        if (compact) {
+            map = PackedPropertiesMap.pack(map);
+        }
+        // the lookups made while expanding stay cached.
+        return new DefaultConfigProperties(defaultLocale, lazyMap != null ? lazyMap.withLoaded(map) : map);
+    }
+
+    /**
+     * Watch the properties file, and publish new {@code ConfigProperties} when
+     * it changes. If the file can not be read, or is empty, like when it is
+     * deleted, or caught half way through a save, the current properties are
+     * kept.
+     */
+    private void registerPropertiesFileWatcher(FeatureContext configurable,
+            final ConfigPropertiesFactory factory,
+            final Map<String, String> configurationProperties,
+            final String resourcePath,
+            final Locale defaultLocale,
+            final boolean compact) {
+
+        PropertiesFileWatcher watcher = PropertiesFileWatcher.forResource(resourcePath, new Runnable() {
+            @Override
+            public void run() {
+                Map<String, String> fileProperties = new HashMap<String, String>();
+                if (!DefaultPropertiesProvider.loadInto(resourcePath, fileProperties) || fileProperties.isEmpty()) {
+                    LOGGER.log(Level.WARNING, "Properties file {0} could not be loaded, or is empty. "
+                            + "The current properties are kept.", resourcePath);
+                    return;
+                }
+                Map<String, String> properties = new HashMap<String, String>(configurationProperties);
+                properties.putAll(fileProperties);
+                addUserProvidersToMap(properties);
+                factory.publish(newDefaultConfigProperties(defaultLocale, properties, compact));
+                LOGGER.log(Level.INFO, "Reloaded properties from {0}.", resourcePath);
+            }
+        });
+        if (watcher != null) {
+            watcher.start();
+            configurable.register(watcher);
+        }
+    }
+
+    /**
+     * Add user defined {@code PropertiesProvider} to global properties. The
+     * providers are loaded concurrently, and merged in order.
+     *
+     * @param propertiesMap the global properties map.
+     */
+    private void addUserProvidersToMap(Map<String, String> propertiesMap) {
+        providerLoader.loadInto(propertiesMap);
+    }
+
+    /**
+     * Add default {@code PropertiesProvider} to global properties. The file is
+     * parsed straight into the global properties, without copying.
      *
      * @param propertiesMap the global properties.
      * @param propertiesPath the path for the provider to find the properties
      * file.
      */
     private void addDefaultProviderToMap(Map<String, String> propertiesMap, String propertiesPath) {
-        DefaultPropertiesProvider provider = new DefaultPropertiesProvider(propertiesPath);
-        propertiesMap.putAll(provider.getProperties());
+        DefaultPropertiesProvider.loadInto(propertiesPath, propertiesMap);
     }
 
     /**
@@ -152,17 +452,6 @@ public class JerseyPropertiesFeature implements Feature {
         propertiesMap.putAll(provider.getProperties());
     }
 
-    private Map<Locale, ResourceBundle> convertResourceBundles(String bundleName) {
-        Map<Locale, ResourceBundle> bundlesMap = new HashMap<Locale, ResourceBundle>();
-
-        for (Locale locale : Locale.getAvailableLocales()) {
-            ResourceBundle bundle = ResourceBundle.getBundle(bundleName, locale);
-            bundlesMap.put(locale, bundle);
-        }
-
-        return Collections.unmodifiableMap(bundlesMap);
-    }
-
     private static class Binder extends AbstractBinder {
 
         private final ConfigPropertiesFactory configPropertiesFactory;
@@ -174,13 +463,20 @@ public class JerseyPropertiesFeature implements Feature {
         @Override
         protected void configure() {
             bindFactory(configPropertiesFactory).to(ConfigProperties.class);
+            bind(configPropertiesFactory).to(ConfigPropertiesFactory.class);
+            bind(new TypedProperties(configPropertiesFactory)).to(TypedProperties.class);
 
             bind(PropertiesValueFactoryProvider.PropertyInjectionResolver.class)
                     .to(new TypeLiteral<InjectionResolver<Prop>>() {
                     }).in(Singleton.class);
 
+            bind(PropertiesValueFactoryProvider.PropGroupInjectionResolver.class)
+                    .to(new TypeLiteral<InjectionResolver<PropGroup>>() {
+                    }).in(Singleton.class);
+
             bind(PropertiesValueFactoryProvider.class)
                     .to(ValueFactoryProvider.class)
+                    .to(PropertiesValueFactoryProvider.class)
                     .in(Singleton.class);
         }
     }
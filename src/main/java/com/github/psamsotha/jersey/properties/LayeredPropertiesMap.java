@@ -0,0 +1,68 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of several property maps, in order of precedence, without
+ * copying them. A lookup returns the value of the first map that has the key.
+ * Only iterating the map merges the layers, once.
+ *
+ * @author Paul Samsotha
+ */
+final class LayeredPropertiesMap extends AbstractMap<String, String> {
+
+    private final List<Map<String, String>> layers;
+    private volatile Map<String, String> merged;
+
+    /**
+     * @param layers the maps, the one with the highest precedence first.
+     */
+    LayeredPropertiesMap(List<Map<String, String>> layers) {
+        this.layers = Collections.unmodifiableList(new ArrayList<Map<String, String>>(layers));
+    }
+
+    @Override
+    public String get(Object key) {
+        for (Map<String, String> layer : layers) {
+            String value = layer.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return merged().size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return merged().entrySet();
+    }
+
+    private Map<String, String> merged() {
+        Map<String, String> map = merged;
+        if (map == null) {
+            map = new HashMap<String, String>();
+            for (int i = layers.size() - 1; i >= 0; i--) {
+                map.putAll(layers.get(i));
+            }
+            map = Collections.unmodifiableMap(map);
+            merged = map;
+        }
+        return map;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable map of properties, that looks up the keys missing from the loaded
+ * properties in {@code LazyPropertiesProvider}s, in order. The results are kept
+ * in a bounded cache, including the keys that no provider has, so a source is
+ * asked at most once for a key while it stays cached. Iterating the map only
+ * covers the loaded properties.
+ *
+ * @author Paul Samsotha
+ */
+final class LazyPropertiesMap extends AbstractMap<String, String> {
+
+    /**
+     * Default maximum number of cached lookups.
+     */
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final String ABSENT = new String("absent");
+
+    private final Map<String, String> loaded;
+    private final LazyPropertiesProvider[] providers;
+    private final BoundedCache<String, String> cache;
+
+    LazyPropertiesMap(Map<String, String> loaded, LazyPropertiesProvider[] providers, int cacheSize) {
+        this(loaded, providers, new BoundedCache<String, String>(cacheSize));
+    }
+
+    private LazyPropertiesMap(Map<String, String> loaded, LazyPropertiesProvider[] providers,
+            BoundedCache<String, String> cache) {
+        this.loaded = loaded;
+        this.providers = providers;
+        this.cache = cache;
+    }
+
+    /**
+     * Get a map of other loaded properties, with the same keys, that shares
+     * the providers and the cache of this one; like the loaded properties
+     * once their references are expanded.
+     *
+     * @param loaded the loaded properties.
+     * @return the map.
+     */
+    LazyPropertiesMap withLoaded(Map<String, String> loaded) {
+        return new LazyPropertiesMap(loaded, providers, cache);
+    }
+
+    @Override
+    public String get(Object key) {
+        String value = loaded.get(key);
+        if (value != null || !(key instanceof String)) {
+            return value;
+        }
+        String cached = cache.get((String) key);
+        if (cached == null) {
+            cached = cache.put((String) key, lookup((String) key));
+        }
+        return cached == ABSENT ? null : cached;
+    }
+
+    private String lookup(String key) {
+        for (LazyPropertiesProvider provider : providers) {
+            String value = provider.getProperty(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return ABSENT;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return loaded.size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return loaded.entrySet();
+    }
+
+    /**
+     * Get the loaded properties, without the lazily looked up ones.
+     *
+     * @return the loaded properties.
+     */
+    Map<String, String> getLoaded() {
+        return loaded;
+    }
+
+    int cacheSize() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.psamsotha.jersey.properties;
+
+/**
+ * Provides single properties on demand for the {@code JerseyPropertiesFeature},
+ * for sources too large to load as a whole, like a key-value store. A key is
+ * only looked up the first time it is injected, and the result, whether it is
+ * found or not, is cached.
+ *
+ * @author Paul Samsotha
+ */
+public interface LazyPropertiesProvider {
+
+    /**
+     * Get a property. May be called from several threads at the same time.
+     *
+     * @param key the property key.
+     * @return the property value, or {@code null} if there is no such
+     * property.
+     */
+    String getProperty(String key);
+}
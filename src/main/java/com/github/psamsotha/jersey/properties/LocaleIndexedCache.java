@@ -0,0 +1,55 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-parameter cache of converted property values, indexed by the dense
+ * locale index assigned by {@code ConfigProperties}. Slots are filled with a
+ * compare-and-set, so concurrent first requests agree on a single value and
+ * no update is lost.
+ *
+ * @author Paul Samsotha
+ */
+final class LocaleIndexedCache {
+
+    /**
+     * Cached in place of a {@code null} value, so that a missing property is
+     * not looked up again.
+     */
+    static final Object NULL = new Object();
+
+    private final AtomicReferenceArray<Object> values;
+
+    LocaleIndexedCache(int size) {
+        this.values = new AtomicReferenceArray<Object>(size);
+    }
+
+    /**
+     * Get the cached value for the locale index.
+     *
+     * @param index the locale index.
+     * @return the cached value, or {@code null} if not yet cached.
+     */
+    Object get(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * Cache the value for the locale index, unless a value has already been
+     * cached.
+     *
+     * @param index the locale index.
+     * @param value the value to cache, not {@code null}.
+     * @return the value held by the cache after the call.
+     */
+    Object putIfAbsent(int index, Object value) {
+        if (values.compareAndSet(index, null, value)) {
+            return value;
+        }
+        return values.get(index);
+    }
+
+    int size() {
+        return values.length();
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.glassfish.jersey.message.internal.AcceptableLanguageTag;
+import org.glassfish.jersey.message.internal.HttpHeaderReader;
+
+/**
+ * Negotiates the request locale from an {@code Accept-Language} header,
+ * against the locales that have a resource bundle. Ranges are tried in order
+ * of quality. A range first matches a supported locale exactly, then by
+ * language. If nothing matches, the default locale is used.
+ *
+ * The header string to locale resolution is memoized in a bounded cache, as a
+ * small number of distinct headers make up nearly all traffic.
+ *
+ * @author Paul Samsotha
+ */
+final class LocaleNegotiator {
+
+    static final int DEFAULT_CACHE_SIZE = 512;
+
+    private static final String WILDCARD = "*";
+
+    private final Locale defaultLocale;
+    private final Set<Locale> supportedLocales;
+    private final List<Locale> orderedLocales;
+    private final BoundedCache<String, Locale> cache;
+
+    LocaleNegotiator(Collection<Locale> supportedLocales, Locale defaultLocale, int cacheSize) {
+        this.defaultLocale = defaultLocale;
+        this.supportedLocales = new HashSet<Locale>(supportedLocales);
+        this.supportedLocales.add(defaultLocale);
+
+        // default locale first, so it wins language-only matches
+        List<Locale> ordered = new ArrayList<Locale>(this.supportedLocales);
+        ordered.remove(defaultLocale);
+        Collections.sort(ordered, new Comparator<Locale>() {
+            @Override
+            public int compare(Locale l1, Locale l2) {
+                return l1.toString().compareTo(l2.toString());
+            }
+        });
+        ordered.add(0, defaultLocale);
+        this.orderedLocales = Collections.unmodifiableList(ordered);
+        this.cache = new BoundedCache<String, Locale>(cacheSize);
+    }
+
+    /**
+     * Get the locale for the {@code Accept-Language} header value.
+     *
+     * @param acceptLanguage the header value, may be {@code null}.
+     * @return the negotiated locale, never {@code null}.
+     */
+    Locale negotiate(String acceptLanguage) {
+        if (acceptLanguage == null || acceptLanguage.isEmpty()) {
+            return defaultLocale;
+        }
+        Locale locale = cache.get(acceptLanguage);
+        if (locale == null) {
+            locale = cache.put(acceptLanguage, resolve(acceptLanguage));
+        }
+        return locale;
+    }
+
+    Set<Locale> getSupportedLocales() {
+        return Collections.unmodifiableSet(supportedLocales);
+    }
+
+    long getCacheEvictions() {
+        return cache.evictions();
+    }
+
+    private Locale resolve(String acceptLanguage) {
+        List<AcceptableLanguageTag> ranges;
+        try {
+            ranges = HttpHeaderReader.readAcceptLanguage(acceptLanguage);
+        } catch (ParseException ex) {
+            return defaultLocale;
+        }
+        for (AcceptableLanguageTag range : ranges) {
+            if (range.getQuality() <= 0) {
+                continue;
+            }
+            if (WILDCARD.equals(range.getTag())) {
+                return defaultLocale;
+            }
+            Locale match = match(range.getAsLocale());
+            if (match != null) {
+                return match;
+            }
+        }
+        return defaultLocale;
+    }
+
+    private Locale match(Locale requested) {
+        if (supportedLocales.contains(requested)) {
+            return requested;
+        }
+        String language = requested.getLanguage();
+        for (Locale supported : orderedLocales) {
+            if (supported.getLanguage().equalsIgnoreCase(language)) {
+                return supported;
+            }
+        }
+        return null;
+    }
+}
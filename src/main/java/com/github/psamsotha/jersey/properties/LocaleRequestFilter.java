@@ -0,0 +1,53 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.IOException;
+import java.util.Locale;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.HttpHeaders;
+
+/**
+ * Pre-matching filter that negotiates the request locale once, and stores it
+ * as a request property for all i18n property factories to read, instead of
+ * each injected parameter negotiating it again.
+ *
+ * @author Paul Samsotha
+ */
+@PreMatching
+@Priority(Priorities.HEADER_DECORATOR)
+final class LocaleRequestFilter implements ContainerRequestFilter {
+
+    /**
+     * Request property holding the negotiated {@code Locale}.
+     */
+    static final String LOCALE_PROPERTY = "com.github.psamsotha.jersey.properties.locale";
+
+    private final LocaleNegotiator localeNegotiator;
+
+    LocaleRequestFilter(LocaleNegotiator localeNegotiator) {
+        this.localeNegotiator = localeNegotiator;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(LOCALE_PROPERTY, resolveLocale(requestContext));
+    }
+
+    /**
+     * Get the request locale, negotiating it if the filter has not already
+     * done so.
+     *
+     * @param requestContext the request.
+     * @return the request locale.
+     */
+    Locale resolveLocale(ContainerRequestContext requestContext) {
+        Object locale = requestContext.getProperty(LOCALE_PROPERTY);
+        if (locale instanceof Locale) {
+            return (Locale) locale;
+        }
+        return localeNegotiator.negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_LANGUAGE));
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of properties, read in place from a buffer in the layout
+ * written by {@code PackedPropertiesMap.writeTo}. When the buffer is a
+ * memory-mapped file, nothing is parsed or copied at startup; lookups binary
+ * search the sorted keys in the buffer, and a value {@code String} is only
+ * created when it is read. Only absolute reads are used, so the map is safe
+ * to share between threads.
+ *
+ * @author Paul Samsotha
+ */
+final class MappedPropertiesMap extends AbstractMap<String, String> {
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int keyOffsetsPosition;
+    private final int valueOffsetsPosition;
+    private final int keyCharsPosition;
+    private final int valueCharsPosition;
+
+    /**
+     * Create the map over the table.
+     *
+     * @param buffer the table, starting at position 0.
+     */
+    MappedPropertiesMap(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.size = buffer.getInt(0);
+        this.keyOffsetsPosition = 4;
+        this.valueOffsetsPosition = keyOffsetsPosition + 4 * (size + 1);
+        this.keyCharsPosition = valueOffsetsPosition + 4 * (size + 1);
+        this.valueCharsPosition = keyCharsPosition + 2 * keyOffset(size);
+        if (size < 0 || valueCharsPosition + 2 * valueOffset(size) > buffer.limit()) {
+            throw new IllegalArgumentException("Corrupt properties table.");
+        }
+    }
+
+    private int keyOffset(int index) {
+        return buffer.getInt(keyOffsetsPosition + 4 * index);
+    }
+
+    private int valueOffset(int index) {
+        return buffer.getInt(valueOffsetsPosition + 4 * index);
+    }
+
+    /**
+     * Find the index of the key.
+     *
+     * @param key the key.
+     * @return the index, or a negative number if the key is not in the map.
+     */
+    int indexOf(String key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compareKey(int index, String key) {
+        int offset = keyOffset(index);
+        int length = keyOffset(index + 1) - offset;
+        int position = keyCharsPosition + 2 * offset;
+        int min = Math.min(length, key.length());
+        for (int i = 0; i < min; i++) {
+            char c = buffer.getChar(position + 2 * i);
+            char k = key.charAt(i);
+            if (c != k) {
+                return c - k;
+            }
+        }
+        return length - key.length();
+    }
+
+    private String readString(int charsPosition, int offset, int end) {
+        char[] chars = new char[end - offset];
+        int position = charsPosition + 2 * offset;
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(position + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    String keyAt(int index) {
+        return readString(keyCharsPosition, keyOffset(index), keyOffset(index + 1));
+    }
+
+    String valueAt(int index) {
+        return readString(valueCharsPosition, valueOffset(index), valueOffset(index + 1));
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int index = indexOf((String) key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<String, String>(keyAt(index), valueAt(index));
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException(ConfigProperties.UNSUPPORTED_MESSAGE);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
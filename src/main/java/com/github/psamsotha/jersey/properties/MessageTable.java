@@ -0,0 +1,105 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Immutable table of all the messages of a set of resource bundles. Each key
+ * has a dense key id, and each locale the same dense index used by
+ * {@code ConfigProperties}. Values are stored in one flat array, with the
+ * fallbacks already resolved, so a lookup is two array indexes, with no
+ * parent bundle walk and no {@code MissingResourceException}.
+ *
+ * @author Paul Samsotha
+ */
+final class MessageTable {
+
+    static final int NO_KEY = -1;
+
+    private final Map<String, Integer> keyIds;
+    private final int keyCount;
+    private final String[] values;
+
+    private MessageTable(Map<String, Integer> keyIds, String[] values) {
+        this.keyIds = keyIds;
+        this.keyCount = keyIds.size();
+        this.values = values;
+    }
+
+    /**
+     * Compile the bundles into a table.
+     *
+     * @param bundles the bundle for each locale index.
+     * @param fallbackChains the fallback chain of locale indexes for each
+     * locale index, starting with the locale itself.
+     * @return the compiled table.
+     */
+    static MessageTable compile(ResourceBundle[] bundles, int[][] fallbackChains) {
+        Map<String, Integer> keyIds = new HashMap<String, Integer>();
+        List<String> keys = new ArrayList<String>();
+        for (ResourceBundle bundle : bundles) {
+            Enumeration<String> bundleKeys = bundle.getKeys();
+            while (bundleKeys.hasMoreElements()) {
+                String key = bundleKeys.nextElement();
+                if (!keyIds.containsKey(key)) {
+                    keyIds.put(key, keys.size());
+                    keys.add(key);
+                }
+            }
+        }
+
+        String[] values = new String[bundles.length * keys.size()];
+        for (int locale = 0; locale < bundles.length; locale++) {
+            for (int key = 0; key < keys.size(); key++) {
+                String value = null;
+                for (int i = 0; i < fallbackChains[locale].length && value == null; i++) {
+                    value = getString(bundles[fallbackChains[locale][i]], keys.get(key));
+                }
+                values[locale * keys.size() + key] = value;
+            }
+        }
+        return new MessageTable(Collections.unmodifiableMap(keyIds), values);
+    }
+
+    private static String getString(ResourceBundle bundle, String key) {
+        if (!bundle.containsKey(key)) {
+            return null;
+        }
+        Object value = bundle.getObject(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Get the key id.
+     *
+     * @param key the message key.
+     * @return the key id, or {@link #NO_KEY} if no bundle has the key.
+     */
+    int keyId(String key) {
+        Integer id = keyIds.get(key);
+        return id != null ? id : NO_KEY;
+    }
+
+    /**
+     * Get the message.
+     *
+     * @param localeIndex the locale index.
+     * @param keyId the key id.
+     * @return the message, or {@code null} if there is none.
+     */
+    String get(int localeIndex, int keyId) {
+        if (keyId == NO_KEY) {
+            return null;
+        }
+        return values[localeIndex * keyCount + keyId];
+    }
+
+    int keyCount() {
+        return keyCount;
+    }
+}
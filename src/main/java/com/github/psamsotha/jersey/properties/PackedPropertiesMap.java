@@ -0,0 +1,207 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of properties, packed for a small retained heap. All the keys,
+ * in sorted order, are stored back to back in one {@code char[]}, and all the
+ * values in another, with an offset table for each. Lookups binary search the
+ * packed keys without creating a string, and a value {@code String} is only
+ * created when it is read. This replaces the entry, key and value objects of a
+ * {@code HashMap} with two ints per entry.
+ *
+ * @author Paul Samsotha
+ */
+final class PackedPropertiesMap extends AbstractMap<String, String> {
+
+    private final char[] keyChars;
+    private final int[] keyOffsets;
+    private final char[] valueChars;
+    private final int[] valueOffsets;
+
+    private PackedPropertiesMap(char[] keyChars, int[] keyOffsets, char[] valueChars, int[] valueOffsets) {
+        this.keyChars = keyChars;
+        this.keyOffsets = keyOffsets;
+        this.valueChars = valueChars;
+        this.valueOffsets = valueOffsets;
+    }
+
+    /**
+     * Pack the properties. Entries with a {@code null} key or value are left
+     * out.
+     *
+     * @param properties the properties to pack.
+     * @return the packed properties.
+     */
+    static PackedPropertiesMap pack(Map<String, String> properties) {
+        String[] keys = new String[properties.size()];
+        int count = 0;
+        for (Entry<String, String> entry : properties.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                keys[count++] = entry.getKey();
+            }
+        }
+        keys = Arrays.copyOf(keys, count);
+        Arrays.sort(keys);
+
+        int keyLength = 0;
+        int valueLength = 0;
+        for (String key : keys) {
+            keyLength += key.length();
+            valueLength += properties.get(key).length();
+        }
+
+        char[] keyChars = new char[keyLength];
+        char[] valueChars = new char[valueLength];
+        int[] keyOffsets = new int[keys.length + 1];
+        int[] valueOffsets = new int[keys.length + 1];
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            String value = properties.get(key);
+            key.getChars(0, key.length(), keyChars, keyOffsets[i]);
+            value.getChars(0, value.length(), valueChars, valueOffsets[i]);
+            keyOffsets[i + 1] = keyOffsets[i] + key.length();
+            valueOffsets[i + 1] = valueOffsets[i] + value.length();
+        }
+        return new PackedPropertiesMap(keyChars, keyOffsets, valueChars, valueOffsets);
+    }
+
+    /**
+     * Write the packed arrays: the entry count, the key offsets, the value
+     * offsets, the key chars, then the value chars. This is the table layout
+     * read by {@code MappedPropertiesMap}.
+     *
+     * @param out the output.
+     * @throws IOException if the output can not be written.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size());
+        for (int offset : keyOffsets) {
+            out.writeInt(offset);
+        }
+        for (int offset : valueOffsets) {
+            out.writeInt(offset);
+        }
+        for (char c : keyChars) {
+            out.writeChar(c);
+        }
+        for (char c : valueChars) {
+            out.writeChar(c);
+        }
+    }
+
+    /**
+     * Find the index of the key.
+     *
+     * @param key the key.
+     * @return the index, or {@code -(insertion point) - 1} if the key is not
+     * in the map.
+     */
+    int indexOf(String key) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Compare the packed key at the index to the key, like
+     * {@code String.compareTo}.
+     */
+    private int compareKey(int index, String key) {
+        int offset = keyOffsets[index];
+        int length = keyOffsets[index + 1] - offset;
+        int min = Math.min(length, key.length());
+        for (int i = 0; i < min; i++) {
+            char c = keyChars[offset + i];
+            char k = key.charAt(i);
+            if (c != k) {
+                return c - k;
+            }
+        }
+        return length - key.length();
+    }
+
+    String keyAt(int index) {
+        return new String(keyChars, keyOffsets[index], keyOffsets[index + 1] - keyOffsets[index]);
+    }
+
+    String valueAt(int index) {
+        return new String(valueChars, valueOffsets[index], valueOffsets[index + 1] - valueOffsets[index]);
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int index = indexOf((String) key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keyOffsets.length - 1;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<String, String>(keyAt(index), valueAt(index));
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException(ConfigProperties.UNSUPPORTED_MESSAGE);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return PackedPropertiesMap.this.size();
+            }
+        };
+    }
+}
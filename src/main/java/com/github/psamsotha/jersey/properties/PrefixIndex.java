@@ -0,0 +1,154 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sorted index of property keys, for prefix queries, like all the keys under
+ * {@code feature.flags.}, in {@code O(log n + k)}: the first key with the
+ * prefix is found with a binary search, and the keys with the prefix follow
+ * it. Packed and mapped properties are already sorted, and are used in
+ * place; other maps have their keys sorted once, when the index is created.
+ *
+ * @author Paul Samsotha
+ */
+final class PrefixIndex {
+
+    private final SortedKeys keys;
+
+    private PrefixIndex(SortedKeys keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Index the properties.
+     *
+     * @param properties the properties.
+     * @return the index.
+     */
+    static PrefixIndex of(Map<String, String> properties) {
+        if (properties instanceof LazyPropertiesMap) {
+            // only the loaded keys can be enumerated
+            properties = ((LazyPropertiesMap) properties).getLoaded();
+        }
+        if (properties instanceof PackedPropertiesMap) {
+            final PackedPropertiesMap packed = (PackedPropertiesMap) properties;
+            return new PrefixIndex(new SortedKeys() {
+                @Override
+                int size() {
+                    return packed.size();
+                }
+
+                @Override
+                String keyAt(int index) {
+                    return packed.keyAt(index);
+                }
+
+                @Override
+                String valueAt(int index) {
+                    return packed.valueAt(index);
+                }
+            });
+        }
+        if (properties instanceof MappedPropertiesMap) {
+            final MappedPropertiesMap mapped = (MappedPropertiesMap) properties;
+            return new PrefixIndex(new SortedKeys() {
+                @Override
+                int size() {
+                    return mapped.size();
+                }
+
+                @Override
+                String keyAt(int index) {
+                    return mapped.keyAt(index);
+                }
+
+                @Override
+                String valueAt(int index) {
+                    return mapped.valueAt(index);
+                }
+            });
+        }
+
+        final String[] sortedKeys = new String[properties.size()];
+        int count = 0;
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null && count < sortedKeys.length) {
+                sortedKeys[count++] = entry.getKey();
+            }
+        }
+        final String[] keys = Arrays.copyOf(sortedKeys, count);
+        Arrays.sort(keys);
+        final String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = properties.get(keys[i]);
+        }
+        return new PrefixIndex(new SortedKeys() {
+            @Override
+            int size() {
+                return keys.length;
+            }
+
+            @Override
+            String keyAt(int index) {
+                return keys[index];
+            }
+
+            @Override
+            String valueAt(int index) {
+                return values[index];
+            }
+        });
+    }
+
+    /**
+     * Get the properties whose keys start with the prefix, in key order,
+     * without the prefix.
+     *
+     * @param prefix the prefix, like {@code feature.flags.}.
+     * @return the properties, unmodifiable.
+     */
+    Map<String, String> withPrefix(String prefix) {
+        Map<String, String> matches = new LinkedHashMap<String, String>();
+        int size = keys.size();
+        for (int index = firstIndex(prefix); index < size; index++) {
+            String key = keys.keyAt(index);
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            matches.put(key.substring(prefix.length()), keys.valueAt(index));
+        }
+        return Collections.unmodifiableMap(matches);
+    }
+
+    /**
+     * Get the index of the first key not less than the prefix.
+     */
+    private int firstIndex(String prefix) {
+        int low = 0;
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys.keyAt(mid).compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Keys, in {@code String.compareTo} order, and their values.
+     */
+    private abstract static class SortedKeys {
+
+        abstract int size();
+
+        abstract String keyAt(int index);
+
+        abstract String valueAt(int index);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.server.internal.inject.ExtractorException;
+import org.glassfish.jersey.server.internal.inject.MultivaluedParameterExtractor;
+
+/**
+ * Extracts the properties under a prefix, for a {@code Prop("prefix.*")}
+ * {@code Map}, with the prefix stripped from the keys, and the values
+ * converted with a built-in {@code PropertyConverter}. The properties are
+ * found with the {@code PrefixIndex} of the {@code ConfigProperties}.
+ *
+ * @author Paul Samsotha
+ */
+final class PrefixMapExtractor implements MultivaluedParameterExtractor<Map<String, Object>> {
+
+    /**
+     * The suffix of a {@code Prop} key that selects all the properties under
+     * a prefix.
+     */
+    static final String WILDCARD = "*";
+
+    private final String name;
+    private final String prefix;
+    private final Class<?> valueType;
+    private final PropertyConverter<?> converter;
+    private final PropertyConverters converters;
+
+    PrefixMapExtractor(String name, Class<?> valueType,
+            PropertyConverter<?> converter, PropertyConverters converters) {
+        this.name = name;
+        this.prefix = name.substring(0, name.length() - WILDCARD.length());
+        this.valueType = valueType;
+        this.converter = converter;
+        this.converters = converters;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDefaultValueString() {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> extract(MultivaluedMap<String, String> parameters) {
+        Map<String, String> properties;
+        if (parameters instanceof ConfigProperties) {
+            properties = ((ConfigProperties<?, ?>) parameters).withPrefix(prefix);
+        } else {
+            properties = new LinkedHashMap<String, String>();
+            for (String key : parameters.keySet()) {
+                if (key.startsWith(prefix)) {
+                    properties.put(key.substring(prefix.length()), parameters.getFirst(key));
+                }
+            }
+        }
+        if (valueType == String.class) {
+            return (Map<String, Object>) (Map<String, ?>) properties;
+        }
+        Map<String, Object> converted = new LinkedHashMap<String, Object>();
+        try {
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                if (!converter.isMissing(entry.getValue())) {
+                    converted.put(entry.getKey(), converters.convert(converter, valueType, entry.getValue()));
+                }
+            }
+        } catch (RuntimeException ex) {
+            throw new ExtractorException(ex);
+        }
+        return Collections.unmodifiableMap(converted);
+    }
+}
@@ -8,6 +8,7 @@ import java.lang.annotation.Target;
 
 import static java.lang.annotation.ElementType.CONSTRUCTOR;
 import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.PARAMETER;
 
 /**
@@ -16,8 +17,26 @@ import static java.lang.annotation.ElementType.PARAMETER;
  */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
-@Target({FIELD, CONSTRUCTOR, PARAMETER})
+@Target({FIELD, CONSTRUCTOR, PARAMETER, METHOD})
 public @interface Prop {
+
+    /**
+     * Marks that a {@code Prop} has no default value.
+     */
+    String NO_DEFAULT = "\n\t\t\n\t\t\n\uE000\uE001\uE002\n\t\t\t\t\n";
     
     String value();
+
+    /**
+     * The value to use when there is no such property. It is converted the
+     * same as a property value would be.
+     */
+    String defaultValue() default NO_DEFAULT;
+
+    /**
+     * The delimiter of the values, when the property is injected as a
+     * {@code List}, {@code Set}, {@code SortedSet} or an array. Defaults to
+     * the {@code JerseyPropertiesFeature.DELIMITER}.
+     */
+    String delimiter() default "";
 }
@@ -0,0 +1,48 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.PARAMETER;
+
+/**
+ * Injects the properties with a common key prefix as a single object; an
+ * interface, or a class with a no-arg constructor.
+ *
+ * <pre>
+ * public interface DbConfig {
+ *     String url();                              // db.url
+ *     int getPoolSize();                         // db.poolSize
+ *     &#64;Prop(value = "timeout", defaultValue = "30s") Duration timeout();
+ * }
+ *
+ * &#64;PropGroup("db") DbConfig db;
+ * </pre>
+ *
+ * The key of each member is the prefix, a dot, and the name of the field, or
+ * of the interface method without its {@code get} or {@code is}. A
+ * {@code Prop} on a member changes the name, relative to the prefix, and can
+ * give it a default value or a delimiter. Values are converted the same as
+ * {@code Prop} values. The values are bound once for the properties; once
+ * per reload, if reload is enabled. An interface is implemented by an
+ * immutable proxy, shared by all the injection points of the same type and
+ * prefix, and can only have abstract methods. A class gets a new instance
+ * for each injection, so changing its fields does not change the values
+ * others are given.
+ *
+ * @author Paul Samsotha
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({FIELD, CONSTRUCTOR, PARAMETER})
+public @interface PropGroup {
+
+    /**
+     * The key prefix, without the trailing dot.
+     */
+    String value();
+}
@@ -0,0 +1,341 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.server.internal.inject.MultivaluedParameterExtractor;
+import org.glassfish.jersey.server.model.Parameter;
+
+/**
+ * Binds the properties of a {@code PropGroup} prefix onto an interface, with
+ * a proxy, or onto the fields of a class. The members, their keys and their
+ * extractors are worked out once, and each {@code bind} only extracts the
+ * values. The proxy of an interface is immutable, so it is built once per
+ * bind and shared, and each call is a single lookup of a prebuilt value. The
+ * fields of a class can be changed by whoever it is injected into, so a class
+ * gets a new instance of the bound values for each injection.
+ *
+ * @author Paul Samsotha
+ */
+final class PropGroupBinding {
+
+    /**
+     * Creates the extractors of the members.
+     */
+    interface ExtractorSource {
+
+        /**
+         * Get the extractor for the member.
+         *
+         * @param parameter the member, as a {@code Prop} parameter.
+         * @return the extractor, or {@code null} if the member type is not
+         * supported.
+         */
+        MultivaluedParameterExtractor<?> getExtractor(Parameter parameter);
+    }
+
+    private final Class<?> type;
+    private final String prefix;
+    private final List<Member> members = new ArrayList<Member>();
+    private final Constructor<?> constructor;
+    private final Map<Method, Integer> methodIndexes = new HashMap<Method, Integer>();
+
+    /**
+     * Work out the members of the type.
+     *
+     * @param type the interface or class.
+     * @param prefix the key prefix.
+     * @param extractors the source of the member extractors.
+     * @throws IllegalArgumentException if the type can not be bound.
+     */
+    PropGroupBinding(Class<?> type, String prefix, ExtractorSource extractors) {
+        this.type = type;
+        this.prefix = prefix;
+        if (type.isInterface()) {
+            this.constructor = null;
+            for (Method method : type.getMethods()) {
+                if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (!Modifier.isAbstract(method.getModifiers())) {
+                    throw new IllegalArgumentException("PropGroup method " + method
+                            + " has a body, default methods are not supported.");
+                }
+                if (method.getParameterTypes().length != 0 || method.getReturnType() == void.class) {
+                    throw new IllegalArgumentException("PropGroup method " + method
+                            + " must have no parameters and a return type.");
+                }
+                addMember(method, propertyName(method.getName()), method.getReturnType(),
+                        method.getGenericReturnType(), method.getAnnotations(), extractors);
+            }
+        } else {
+            try {
+                this.constructor = type.getDeclaredConstructor();
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException("PropGroup class " + type.getName()
+                        + " must have a no-arg constructor.", ex);
+            }
+            constructor.setAccessible(true);
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    addMember(field, field.getName(), field.getType(),
+                            field.getGenericType(), field.getAnnotations(), extractors);
+                }
+            }
+        }
+    }
+
+    private void addMember(AccessibleObject accessor, String name, Class<?> rawType, Type genericType,
+            Annotation[] annotations, ExtractorSource extractors) {
+        Prop prop = null;
+        List<Annotation> memberAnnotations = new ArrayList<Annotation>();
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Prop) {
+                prop = (Prop) annotation;
+            } else {
+                memberAnnotations.add(annotation);
+            }
+        }
+        String key = prefix + "." + (prop != null ? prop.value() : name);
+        String defaultValue = prop != null && !Prop.NO_DEFAULT.equals(prop.defaultValue())
+                ? prop.defaultValue() : null;
+        memberAnnotations.add(new PropLiteral(key,
+                prop != null ? prop.defaultValue() : Prop.NO_DEFAULT,
+                prop != null ? prop.delimiter() : ""));
+
+        Parameter parameter = Parameter.create(type, type, false, rawType, genericType,
+                memberAnnotations.toArray(new Annotation[memberAnnotations.size()]));
+        MultivaluedParameterExtractor<?> extractor = extractors.getExtractor(parameter);
+        if (extractor == null) {
+            throw new IllegalArgumentException("PropGroup member " + accessor
+                    + " can not be injected as " + genericType + ".");
+        }
+        if (accessor instanceof Field) {
+            accessor.setAccessible(true);
+        } else {
+            methodIndexes.put((Method) accessor, members.size());
+        }
+        members.add(new Member(accessor, key, defaultValue, extractor));
+    }
+
+    /**
+     * Get the property name of an accessor method, {@code getPoolSize} or
+     * {@code poolSize} for instance are both {@code poolSize}.
+     */
+    static String propertyName(String methodName) {
+        for (String accessorPrefix : new String[]{"get", "is"}) {
+            if (methodName.length() > accessorPrefix.length()
+                    && methodName.startsWith(accessorPrefix)
+                    && Character.isUpperCase(methodName.charAt(accessorPrefix.length()))) {
+                String name = methodName.substring(accessorPrefix.length());
+                return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+            }
+        }
+        return methodName;
+    }
+
+    /**
+     * Get the keys of the members that are not set, and have no default.
+     *
+     * @param properties the properties.
+     * @return the missing keys.
+     */
+    List<String> missingKeys(MultivaluedMap<String, String> properties) {
+        List<String> missing = new ArrayList<String>();
+        for (Member member : members) {
+            if (member.defaultValue == null && properties.getFirst(member.key) == null) {
+                missing.add(member.key);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Bind the members to the properties.
+     *
+     * @param properties the properties.
+     * @return the bound values.
+     */
+    Bound bind(MultivaluedMap<String, String> properties) {
+        Object[] values = new Object[members.size()];
+        for (int i = 0; i < values.length; i++) {
+            Member member = members.get(i);
+            values[i] = PropertiesValueFactoryProvider.extract(
+                    member.extractor, properties, member.key, member.defaultValue);
+        }
+        return constructor == null ? new ProxyBound(newProxy(values)) : new InstanceBound(values);
+    }
+
+    /**
+     * The values bound from a set of properties.
+     */
+    abstract static class Bound {
+
+        /**
+         * Get the object to inject.
+         *
+         * @return the object.
+         */
+        abstract Object get();
+    }
+
+    private static final class ProxyBound extends Bound {
+
+        private final Object proxy;
+
+        ProxyBound(Object proxy) {
+            this.proxy = proxy;
+        }
+
+        @Override
+        Object get() {
+            return proxy;
+        }
+    }
+
+    private final class InstanceBound extends Bound {
+
+        private final Object[] values;
+
+        InstanceBound(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        Object get() {
+            try {
+                Object instance = constructor.newInstance();
+                for (int i = 0; i < values.length; i++) {
+                    Field field = (Field) members.get(i).accessor;
+                    if (values[i] != null || !field.getType().isPrimitive()) {
+                        field.set(instance, values[i]);
+                    }
+                }
+                return instance;
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException("Error creating PropGroup " + type.getName() + ".", ex);
+            }
+        }
+    }
+
+    private Object newProxy(final Object[] values) {
+        List<String> keys = new ArrayList<String>(values.length);
+        for (Member member : members) {
+            keys.add(member.key);
+        }
+        // the keys only, the values may be credentials.
+        final String description = type.getSimpleName() + "[prefix=" + prefix + ", keys=" + keys + "]";
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                Integer index = methodIndexes.get(method);
+                if (index != null) {
+                    return values[index];
+                }
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return description;
+                    default:
+                        throw new UnsupportedOperationException(method.toString());
+                }
+            }
+        });
+    }
+
+    private static final class Member {
+
+        final AccessibleObject accessor;
+        final String key;
+        final String defaultValue;
+        final MultivaluedParameterExtractor<?> extractor;
+
+        Member(AccessibleObject accessor, String key, String defaultValue,
+                MultivaluedParameterExtractor<?> extractor) {
+            this.accessor = accessor;
+            this.key = key;
+            this.defaultValue = defaultValue;
+            this.extractor = extractor;
+        }
+    }
+
+    /**
+     * A {@code Prop} with the full key of a member, so the member is
+     * extracted the same as a {@code Prop} parameter.
+     */
+    @SuppressWarnings("ClassExplicitlyAnnotation")
+    private static final class PropLiteral implements Prop {
+
+        private final String value;
+        private final String defaultValue;
+        private final String delimiter;
+
+        PropLiteral(String value, String defaultValue, String delimiter) {
+            this.value = value;
+            this.defaultValue = defaultValue;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+
+        @Override
+        public String defaultValue() {
+            return defaultValue;
+        }
+
+        @Override
+        public String delimiter() {
+            return delimiter;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Prop.class;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Prop)) {
+                return false;
+            }
+            Prop that = (Prop) o;
+            return value.equals(that.value()) && defaultValue.equals(that.defaultValue())
+                    && delimiter.equals(that.delimiter());
+        }
+
+        @Override
+        public int hashCode() {
+            // as specified by Annotation.hashCode
+            return ((127 * "value".hashCode()) ^ value.hashCode())
+                    + ((127 * "defaultValue".hashCode()) ^ defaultValue.hashCode())
+                    + ((127 * "delimiter".hashCode()) ^ delimiter.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return "@" + Prop.class.getName() + "(value=" + value + ", delimiter=" + delimiter + ")";
+        }
+    }
+}
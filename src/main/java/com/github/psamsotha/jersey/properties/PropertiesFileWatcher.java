@@ -0,0 +1,160 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+
+/**
+ * Watches a properties file with a {@code WatchService}, and calls back on a
+ * daemon thread when it changes. The watcher is closed when the container
+ * shuts down.
+ *
+ * @author Paul Samsotha
+ */
+@Provider
+final class PropertiesFileWatcher implements ContainerLifecycleListener, Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(PropertiesFileWatcher.class.getName());
+
+    /**
+     * How long the file must be quiet after a change before it is read, so a
+     * save in several writes is read once, when it is done.
+     */
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path file;
+    private final Runnable onChange;
+    private WatchService watchService;
+
+    private PropertiesFileWatcher(Path file, Runnable onChange) {
+        this.file = file;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Create a watcher for the class-path resource.
+     *
+     * @param resourcePath the class-path resource path.
+     * @param onChange called when the file changes.
+     * @return the watcher, or {@code null} if the resource is not a file on
+     * the file system.
+     */
+    static PropertiesFileWatcher forResource(String resourcePath, Runnable onChange) {
+        URL url = PropertiesFileWatcher.class.getResource(resourcePath);
+        if (url == null) {
+            url = PropertiesFileWatcher.class.getClassLoader().getResource(resourcePath);
+        }
+        if (url == null || !"file".equals(url.getProtocol())) {
+            LOGGER.log(Level.WARNING, "Resource {0} is not a file on the file system, "
+                    + "and will not be reloaded.", resourcePath);
+            return null;
+        }
+        try {
+            return new PropertiesFileWatcher(Paths.get(url.toURI()), onChange);
+        } catch (URISyntaxException | FileSystemNotFoundException ex) {
+            LOGGER.log(Level.WARNING, "Error resolving resource " + resourcePath
+                    + ". It will not be reloaded.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Start watching the file.
+     */
+    synchronized void start() {
+        try {
+            watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Error watching " + file + ". It will not be reloaded.", ex);
+            return;
+        }
+        Thread thread = new Thread(this, "jersey-properties-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching the file.
+     */
+    synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, "Error closing watch service.", ex);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                if (!isChange(watchService.take())) {
+                    continue;
+                }
+                // wait until the file has been quiet for a while, other files
+                // of the directory do not postpone the reload.
+                long quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS);
+                long remaining;
+                while ((remaining = quietUntil - System.nanoTime()) > 0) {
+                    WatchKey next = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null && isChange(next)) {
+                        quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS);
+                    }
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Error reloading " + file + ".", ex);
+                }
+            }
+        } catch (ClosedWatchServiceException ex) {
+            // closed on shutdown
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Take the events of the key, and check whether one is for the file.
+     */
+    private boolean isChange(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    @Override
+    public void onStartup(Container container) {}
+
+    @Override
+    public void onReload(Container container) {}
+
+    @Override
+    public void onShutdown(Container container) {
+        close();
+    }
+}
@@ -0,0 +1,328 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands the {@code ${key}}, {@code ${env:VAR}} and {@code ${sys:prop}}
+ * references of property values, once, when the properties are loaded.
+ * {@code $${} is a literal {@code ${}.
+ *
+ * The values to expand can be a part of the properties, like the ones held on
+ * the heap, while references are looked up in all of them, with
+ * {@code get}, so a referenced property can come from a memory-mapped
+ * snapshot or a {@code LazyPropertiesProvider} without the properties being
+ * copied or iterated.
+ *
+ * References between properties form a graph, which is sorted
+ * topologically, so every value is expanded exactly once, after the values
+ * it references. Cycles, references to missing properties, and malformed
+ * references are all reported together, in a single exception.
+ *
+ * @author Paul Samsotha
+ */
+final class PropertiesInterpolator {
+
+    private static final String ENV_PREFIX = "env:";
+    private static final String SYS_PREFIX = "sys:";
+
+    private final Map<String, String> environment;
+    private final Map<?, ?> systemProperties;
+
+    PropertiesInterpolator(Map<String, String> environment, Map<?, ?> systemProperties) {
+        this.environment = environment;
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * Expand the references of some of the properties, with the environment
+     * and system properties of this JVM.
+     *
+     * @param values the properties to expand.
+     * @param properties all the properties, that references are looked up
+     * in.
+     * @return the expanded values, only of the properties that had a
+     * reference.
+     * @throws IllegalArgumentException if a reference can not be expanded.
+     */
+    static Map<String, String> interpolate(Map<String, String> values, Map<String, String> properties) {
+        return new PropertiesInterpolator(System.getenv(), System.getProperties()).expand(values, properties);
+    }
+
+    /**
+     * Expand the references of the properties.
+     *
+     * @param properties the properties.
+     * @return the expanded properties, or the properties themselves if none
+     * of them has a reference.
+     * @throws IllegalArgumentException if a reference can not be expanded.
+     */
+    Map<String, String> expand(Map<String, String> properties) {
+        Map<String, String> expanded = expand(properties, properties);
+        if (expanded.isEmpty()) {
+            return properties;
+        }
+        Map<String, String> merged = new HashMap<String, String>(properties);
+        merged.putAll(expanded);
+        return merged;
+    }
+
+    /**
+     * Expand the references of some of the properties. A value is only
+     * expanded if it is the value of its key in the properties, and not one
+     * that another source overrides.
+     *
+     * @param values the properties to expand.
+     * @param properties all the properties, that references are looked up
+     * in.
+     * @return the expanded values, only of the properties that had a
+     * reference.
+     * @throws IllegalArgumentException if a reference can not be expanded.
+     */
+    Map<String, String> expand(Map<String, String> values, Map<String, String> properties) {
+        List<String> errors = new ArrayList<String>();
+        Map<String, List<Object>> templates = new LinkedHashMap<String, List<Object>>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            if (value != null && value.indexOf('$') >= 0
+                    && (values == properties || value.equals(properties.get(entry.getKey())))) {
+                List<Object> segments = parse(entry.getKey(), value, errors);
+                if (segments != null) {
+                    templates.put(entry.getKey(), segments);
+                }
+            }
+        }
+        if (templates.isEmpty() && errors.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> expanded = new HashMap<String, String>();
+        for (String key : sort(templates, properties, errors)) {
+            StringBuilder value = new StringBuilder();
+            for (Object segment : templates.get(key)) {
+                if (segment instanceof Reference) {
+                    String name = ((Reference) segment).name;
+                    String referenced = expanded.get(name);
+                    value.append(referenced != null ? referenced : properties.get(name));
+                } else {
+                    value.append(segment);
+                }
+            }
+            expanded.put(key, value.toString());
+        }
+        if (!errors.isEmpty()) {
+            StringBuilder message = new StringBuilder("Error interpolating properties:");
+            for (String error : errors) {
+                message.append("\n    ").append(error);
+            }
+            throw new IllegalArgumentException(message.toString());
+        }
+        return expanded;
+    }
+
+    /**
+     * Split the value into literal strings and references to other
+     * properties. Environment and system references are expanded right away.
+     *
+     * @return the segments, or {@code null} if the value has no reference to
+     * another property, and needs no further expansion.
+     */
+    private List<Object> parse(String key, String value, List<String> errors) {
+        List<Object> segments = new ArrayList<Object>();
+        StringBuilder literal = new StringBuilder();
+        boolean hasReference = false;
+        boolean changed = false;
+        int index = 0;
+        while (index < value.length()) {
+            int start = value.indexOf("${", index);
+            if (start < 0) {
+                literal.append(value, index, value.length());
+                break;
+            }
+            if (start > 0 && value.charAt(start - 1) == '$') {
+                // $${ is an escaped ${
+                literal.append(value, index, start - 1).append("${");
+                index = start + 2;
+                changed = true;
+                continue;
+            }
+            literal.append(value, index, start);
+            int end = value.indexOf('}', start + 2);
+            if (end < 0) {
+                errors.add("property " + key + " has an unterminated reference: " + value);
+                return null;
+            }
+            String name = value.substring(start + 2, end);
+            index = end + 1;
+            changed = true;
+            if (name.startsWith(ENV_PREFIX)) {
+                String env = environment.get(name.substring(ENV_PREFIX.length()));
+                if (env == null) {
+                    errors.add("property " + key + " references undefined environment variable "
+                            + name.substring(ENV_PREFIX.length()));
+                } else {
+                    literal.append(env);
+                }
+            } else if (name.startsWith(SYS_PREFIX)) {
+                Object sys = systemProperties.get(name.substring(SYS_PREFIX.length()));
+                if (sys == null) {
+                    errors.add("property " + key + " references undefined system property "
+                            + name.substring(SYS_PREFIX.length()));
+                } else {
+                    literal.append(sys);
+                }
+            } else if (name.isEmpty()) {
+                errors.add("property " + key + " has an empty reference: " + value);
+            } else {
+                if (literal.length() > 0) {
+                    segments.add(literal.toString());
+                    literal.setLength(0);
+                }
+                segments.add(new Reference(name));
+                hasReference = true;
+            }
+        }
+        if (literal.length() > 0) {
+            segments.add(literal.toString());
+        }
+        if (!changed) {
+            return null;
+        }
+        if (!hasReference) {
+            // only env and sys references, already expanded.
+            return segments.isEmpty() ? Collections.<Object>singletonList("") : segments;
+        }
+        return segments;
+    }
+
+    /**
+     * Sort the templates so that every property comes after the properties
+     * it references, with Kahn's algorithm. Properties that are left over are
+     * on, or depend on, a cycle.
+     *
+     * @return the keys of the templates that can be expanded, in order.
+     */
+    private static List<String> sort(Map<String, List<Object>> templates,
+            Map<String, String> properties, List<String> errors) {
+        Map<String, Integer> pending = new HashMap<String, Integer>();
+        Map<String, List<String>> dependents = new HashMap<String, List<String>>();
+        Deque<String> ready = new ArrayDeque<String>();
+        for (Map.Entry<String, List<Object>> entry : templates.entrySet()) {
+            String key = entry.getKey();
+            int count = 0;
+            boolean missing = false;
+            for (Object segment : entry.getValue()) {
+                if (!(segment instanceof Reference)) {
+                    continue;
+                }
+                String name = ((Reference) segment).name;
+                if (properties.get(name) == null) {
+                    errors.add("property " + key + " references undefined property " + name);
+                    missing = true;
+                } else if (templates.containsKey(name)) {
+                    List<String> list = dependents.get(name);
+                    if (list == null) {
+                        list = new ArrayList<String>();
+                        dependents.put(name, list);
+                    }
+                    list.add(key);
+                    count++;
+                }
+            }
+            if (missing) {
+                // expanded as is, the error is thrown once all are reported.
+                count = Integer.MAX_VALUE / 2;
+            }
+            pending.put(key, count);
+            if (count == 0) {
+                ready.add(key);
+            }
+        }
+
+        List<String> order = new ArrayList<String>(templates.size());
+        while (!ready.isEmpty()) {
+            String key = ready.poll();
+            order.add(key);
+            List<String> list = dependents.get(key);
+            if (list != null) {
+                for (String dependent : list) {
+                    int count = pending.get(dependent) - 1;
+                    pending.put(dependent, count);
+                    if (count == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        }
+
+        if (order.size() < templates.size()) {
+            for (String cycle : findCycles(templates, pending)) {
+                errors.add("properties have a cyclic reference: " + cycle);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Find the cycles among the properties that could not be sorted, with a
+     * depth-first search. Properties left over only because they reference a
+     * missing property, or a cycle, are not on a cycle themselves.
+     *
+     * @return the cycles, like {@code a -> b -> a}.
+     */
+    private static List<String> findCycles(Map<String, List<Object>> templates, Map<String, Integer> pending) {
+        List<String> cycles = new ArrayList<String>();
+        // false while the property is on the search path, true once done.
+        Map<String, Boolean> visited = new HashMap<String, Boolean>();
+        for (String key : templates.keySet()) {
+            if (pending.get(key) > 0 && !visited.containsKey(key)) {
+                findCycles(key, templates, pending, visited, new ArrayList<String>(), cycles);
+            }
+        }
+        return cycles;
+    }
+
+    private static void findCycles(String key, Map<String, List<Object>> templates, Map<String, Integer> pending,
+            Map<String, Boolean> visited, List<String> path, List<String> cycles) {
+        visited.put(key, false);
+        path.add(key);
+        for (Object segment : templates.get(key)) {
+            if (!(segment instanceof Reference)) {
+                continue;
+            }
+            String name = ((Reference) segment).name;
+            Integer count = pending.get(name);
+            if (count == null || count == 0) {
+                // not a template, or already sorted.
+                continue;
+            }
+            Boolean done = visited.get(name);
+            if (done == null) {
+                findCycles(name, templates, pending, visited, path, cycles);
+            } else if (!done) {
+                StringBuilder cycle = new StringBuilder();
+                for (String member : path.subList(path.indexOf(name), path.size())) {
+                    cycle.append(member).append(" -> ");
+                }
+                cycles.add(cycle.append(name).toString());
+            }
+        }
+        path.remove(path.size() - 1);
+        visited.put(key, true);
+    }
+
+    private static final class Reference {
+
+        final String name;
+
+        Reference(String name) {
+            this.name = name;
+        }
+    }
+}
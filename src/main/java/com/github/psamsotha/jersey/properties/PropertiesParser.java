@@ -0,0 +1,218 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+
+/**
+ * Streaming parser for the {@code .properties} format, as specified by
+ * {@code Properties.load(InputStream)}. The input is read in ISO-8859-1 from
+ * a channel through one reusable buffer, and each entry is put straight into
+ * the target map, so the only allocations per entry are the key and value
+ * strings.
+ *
+ * @author Paul Samsotha
+ */
+final class PropertiesParser {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private char[] line = new char[256];
+    private char[] converted = new char[256];
+
+    private PropertiesParser(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer.flip();
+    }
+
+    /**
+     * Parse the properties from the channel into the map. Entries replace the
+     * ones already in the map with the same key. The channel is not closed.
+     *
+     * @param channel the channel to read.
+     * @param target the map to put the properties in.
+     * @throws IOException if the channel can not be read.
+     * @throws IllegalArgumentException if the input contains a malformed
+     * {@code \}{@code uxxxx} escape.
+     */
+    static void parse(ReadableByteChannel channel, Map<String, String> target) throws IOException {
+        new PropertiesParser(channel).parseInto(target);
+    }
+
+    private void parseInto(Map<String, String> target) throws IOException {
+        int length;
+        while ((length = readLine()) >= 0) {
+            int keyLength = 0;
+            int valueStart = length;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+            while (keyLength < length) {
+                char c = line[keyLength];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+            while (valueStart < length) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (!hasSeparator && (c == '=' || c == ':')) {
+                        hasSeparator = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            target.put(unescape(0, keyLength), unescape(valueStart, length - valueStart));
+        }
+    }
+
+    /**
+     * Read the next logical line into {@code line}, without leading
+     * whitespace, comments, blank lines and line continuations.
+     *
+     * @return the length of the line, or -1 at the end of the input.
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        boolean skipWhitespace = true;
+        boolean isNewLine = true;
+        boolean isCommentLine = false;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLineFeed = false;
+
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                if (length == 0 || isCommentLine) {
+                    return -1;
+                }
+                return precedingBackslash ? length - 1 : length;
+            }
+            char c = (char) (buffer.get() & 0xFF);
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (skipWhitespace) {
+                if (isWhitespace(c) || (!appendedLineBegin && (c == '\r' || c == '\n'))) {
+                    continue;
+                }
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+            if (isNewLine) {
+                isNewLine = false;
+                if (c == '#' || c == '!') {
+                    isCommentLine = true;
+                    continue;
+                }
+            }
+            if (c != '\n' && c != '\r') {
+                if (!isCommentLine) {
+                    if (length == line.length) {
+                        line = grow(line);
+                    }
+                    line[length++] = c;
+                    precedingBackslash = c == '\\' && !precedingBackslash;
+                }
+            } else if (isCommentLine || length == 0) {
+                isCommentLine = false;
+                isNewLine = true;
+                skipWhitespace = true;
+                length = 0;
+            } else if (precedingBackslash) {
+                // line continuation, drop the backslash.
+                length--;
+                precedingBackslash = false;
+                skipWhitespace = true;
+                appendedLineBegin = true;
+                skipLineFeed = c == '\r';
+            } else {
+                // a '\n' after a '\r' is skipped as a blank line by the next read.
+                return length;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+
+    /**
+     * Create the string for a range of {@code line}, converting the escapes.
+     */
+    private String unescape(int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end && line[i] != '\\') {
+            i++;
+        }
+        if (i == end) {
+            return new String(line, offset, length);
+        }
+        if (converted.length < length) {
+            converted = new char[Math.max(length, converted.length * 2)];
+        }
+        int out = i - offset;
+        System.arraycopy(line, offset, converted, 0, out);
+        while (i < end) {
+            char c = line[i++];
+            if (c == '\\' && i < end) {
+                c = line[i++];
+                if (c == 'u') {
+                    if (end - i < 4) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    int value = 0;
+                    for (int n = 0; n < 4; n++) {
+                        int digit = Character.digit(line[i++], 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    c = (char) value;
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            converted[out++] = c;
+        }
+        return new String(converted, 0, out);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static char[] grow(char[] chars) {
+        char[] grown = new char[chars.length * 2];
+        System.arraycopy(chars, 0, grown, 0, chars.length);
+        return grown;
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the user defined {@code PropertiesProvider}s concurrently, on a
+ * bounded pool of daemon threads, and merges their properties in the order
+ * the providers were registered, so later providers still take precedence.
+ * A provider that takes longer than the timeout, counted from when it starts
+ * running, is skipped with a warning. The load time of each provider is
+ * logged at {@code FINE}.
+ *
+ * @author Paul Samsotha
+ */
+final class PropertiesProviderLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(PropertiesProviderLoader.class.getName());
+
+    /**
+     * Default maximum number of providers loaded at the same time.
+     */
+    static final int DEFAULT_THREADS = 8;
+
+    private final PropertiesProvider[] providers;
+    private final int threads;
+    private final long timeoutMillis;
+
+    /**
+     * @param providers the providers, in order of precedence, lowest first.
+     * @param threads the maximum number of providers loaded at the same time.
+     * @param timeoutMillis the timeout of each provider, or 0 for none.
+     */
+    PropertiesProviderLoader(PropertiesProvider[] providers, int threads, long timeoutMillis) {
+        this.providers = providers;
+        this.threads = Math.max(1, Math.min(threads, providers.length));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Load all the providers into the map.
+     *
+     * @param propertiesMap the map to put the properties in.
+     */
+    void loadInto(Map<String, String> propertiesMap) {
+        if (providers.length == 0) {
+            return;
+        }
+        if (providers.length == 1 && timeoutMillis <= 0) {
+            ProviderLoad load = new ProviderLoad(providers[0]);
+            propertiesMap.putAll(load.call());
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new LoaderThreadFactory());
+        try {
+            List<ProviderLoad> loads = new ArrayList<ProviderLoad>(providers.length);
+            List<Future<Map<String, String>>> futures = new ArrayList<Future<Map<String, String>>>(providers.length);
+            for (PropertiesProvider provider : providers) {
+                ProviderLoad load = new ProviderLoad(provider);
+                loads.add(load);
+                futures.add(executor.submit(load));
+            }
+            for (int i = 0; i < providers.length; i++) {
+                Map<String, String> properties = await(loads.get(i), futures.get(i));
+                if (properties != null) {
+                    propertiesMap.putAll(properties);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wait for the provider, until its timeout.
+     *
+     * @return the properties, or {@code null} if the provider timed out.
+     */
+    private Map<String, String> await(ProviderLoad load, Future<Map<String, String>> future) {
+        try {
+            if (timeoutMillis <= 0) {
+                return future.get();
+            }
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (true) {
+                if (future.isDone()) {
+                    return future.get();
+                }
+                long startNanos = load.startNanos;
+                // a provider still queued behind others has its full timeout.
+                long waitNanos = startNanos == 0
+                        ? timeoutNanos : startNanos + timeoutNanos - System.nanoTime();
+                try {
+                    if (waitNanos > 0) {
+                        return future.get(waitNanos, TimeUnit.NANOSECONDS);
+                    }
+                } catch (TimeoutException ex) {
+                    // re-check, the provider may not have been running the whole time.
+                }
+                if (!future.isDone() && load.startNanos != 0
+                        && System.nanoTime() - load.startNanos >= timeoutNanos) {
+                    future.cancel(true);
+                    LOGGER.log(Level.WARNING, "PropertiesProvider {0} did not load within {1} ms."
+                            + " Its properties are skipped.",
+                            new Object[]{load.provider.getClass().getName(), timeoutMillis});
+                    return null;
+                }
+            }
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Error loading PropertiesProvider.", cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted loading PropertiesProviders.", ex);
+        }
+    }
+
+    private static final class ProviderLoad implements Callable<Map<String, String>> {
+
+        private final PropertiesProvider provider;
+        private volatile long startNanos;
+
+        ProviderLoad(PropertiesProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public Map<String, String> call() {
+            long start = System.nanoTime();
+            startNanos = start == 0 ? 1 : start;
+            Map<String, String> properties = provider.getProperties();
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Loaded {0} properties from {1} in {2} ms.", new Object[]{
+                    properties != null ? properties.size() : 0,
+                    provider.getClass().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
+            }
+            return properties;
+        }
+    }
+
+    private static final class LoaderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jersey-properties-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
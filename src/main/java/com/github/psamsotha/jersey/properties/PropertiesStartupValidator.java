@@ -0,0 +1,174 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.inject.Inject;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.model.HandlerConstructor;
+import org.glassfish.jersey.server.model.MethodHandler;
+import org.glassfish.jersey.server.model.Parameter;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Resolves every {@code Prop} and {@code PropGroup} injection point of the
+ * resource model when the application is initialized: resource method
+ * parameters, and the fields and constructor parameters of the resource
+ * classes. The values are
+ * converted, and cached, before the first request, and all the problems, like
+ * a value that can not be converted, are reported together; logged, or thrown
+ * to fail the deployment. Properties that are not set, and have no default,
+ * fail the deployment too, but are otherwise only logged at {@code CONFIG},
+ * as an optional property is a valid injection point. With i18n, only the
+ * default locale is resolved, unless the bundles are compiled or come from a
+ * snapshot, so a bundle is not loaded before its locale is first requested.
+ *
+ * The model is resolved on {@code INITIALIZATION_APP_FINISHED}, which in this
+ * version of Jersey is the event that carries the resource model before any
+ * request is served, or else on {@code INITIALIZATION_FINISHED}; only once.
+ *
+ * @author Paul Samsotha
+ */
+final class PropertiesStartupValidator implements ApplicationEventListener {
+
+    private static final Logger LOGGER = Logger.getLogger(PropertiesStartupValidator.class.getName());
+
+    private final ServiceLocator locator;
+    private final boolean failOnErrors;
+    private final AtomicBoolean resolved = new AtomicBoolean();
+
+    @Inject
+    PropertiesStartupValidator(ServiceLocator locator, Configuration configuration) {
+        this.locator = locator;
+        this.failOnErrors = PropertiesHelper.getValue(
+                configuration.getProperties(), JerseyPropertiesFeature.FAIL_ON_PROPERTY_ERRORS, false, null);
+    }
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+        if ((event.getType() == ApplicationEvent.Type.INITIALIZATION_APP_FINISHED
+                || event.getType() == ApplicationEvent.Type.INITIALIZATION_FINISHED)
+                && event.getResourceModel() != null
+                && resolved.compareAndSet(false, true)) {
+            validate(event.getResourceModel());
+        }
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return null;
+    }
+
+    private void validate(ResourceModel model) {
+        PropertiesValueFactoryProvider provider = locator.getService(PropertiesValueFactoryProvider.class);
+        Problems problems = new Problems();
+        Set<Class<?>> handlerClasses = new LinkedHashSet<Class<?>>();
+        for (Resource resource : model.getResources()) {
+            validate(provider, resource, handlerClasses, problems);
+        }
+        for (Class<?> handlerClass : handlerClasses) {
+            validateClass(provider, handlerClass, problems);
+        }
+
+        if (failOnErrors) {
+            List<String> all = new ArrayList<String>(problems.errors);
+            all.addAll(problems.missing);
+            if (!all.isEmpty()) {
+                throw new IllegalStateException(message("Invalid @Prop injection points:", all));
+            }
+            return;
+        }
+        if (!problems.errors.isEmpty()) {
+            LOGGER.log(Level.WARNING, message("Invalid @Prop injection points:", problems.errors));
+        }
+        if (!problems.missing.isEmpty() && LOGGER.isLoggable(Level.CONFIG)) {
+            LOGGER.log(Level.CONFIG, message("@Prop injection points without a value:", problems.missing));
+        }
+    }
+
+    private static String message(String title, List<String> problems) {
+        StringBuilder message = new StringBuilder(title);
+        for (String problem : problems) {
+            message.append("\n  ").append(problem);
+        }
+        return message.toString();
+    }
+
+    private void validate(PropertiesValueFactoryProvider provider, Resource resource,
+            Set<Class<?>> handlerClasses, Problems problems) {
+        for (ResourceMethod method : resource.getAllMethods()) {
+            MethodHandler handler = method.getInvocable().getHandler();
+            handlerClasses.add(handler.getHandlerClass());
+            List<Parameter> parameters = method.getInvocable().getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                validateParameter(provider, parameters.get(i), "parameter " + (i + 1) + " of "
+                        + method.getInvocable().getHandlingMethod(), problems);
+            }
+            for (HandlerConstructor constructor : handler.getConstructors()) {
+                for (Parameter parameter : constructor.getParameters()) {
+                    validateParameter(provider, parameter, "constructor " + constructor.getConstructor(), problems);
+                }
+            }
+        }
+        for (Resource child : resource.getChildResources()) {
+            validate(provider, child, handlerClasses, problems);
+        }
+    }
+
+    private void validateClass(PropertiesValueFactoryProvider provider, Class<?> handlerClass, Problems problems) {
+        for (Class<?> c = handlerClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!isPropertyInjected(field) || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Parameter parameter = Parameter.create(handlerClass, c, false,
+                        field.getType(), field.getGenericType(), field.getAnnotations());
+                validateParameter(provider, parameter, "field " + field, problems);
+            }
+        }
+    }
+
+    private static boolean isPropertyInjected(AnnotatedElement element) {
+        return element.isAnnotationPresent(Prop.class) || element.isAnnotationPresent(PropGroup.class);
+    }
+
+    private static void validateParameter(PropertiesValueFactoryProvider provider,
+            Parameter parameter, String location, Problems problems) {
+        if (parameter == null || !isPropertyInjected(parameter)) {
+            return;
+        }
+        add(problems.errors, provider.resolve(parameter), location);
+        add(problems.missing, provider.findMissing(parameter), location);
+    }
+
+    private static void add(List<String> problems, String problem, String location) {
+        if (problem != null && !problems.contains(problem + ", for " + location)) {
+            problems.add(problem + ", for " + location);
+        }
+    }
+
+    /**
+     * The problems found, by kind.
+     */
+    private static final class Problems {
+
+        final List<String> errors = new ArrayList<String>();
+        final List<String> missing = new ArrayList<String>();
+    }
+}
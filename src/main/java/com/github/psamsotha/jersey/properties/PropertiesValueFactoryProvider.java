@@ -1,16 +1,32 @@
 package com.github.psamsotha.jersey.properties;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.RuntimeType;
 import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ParamConverterProvider;
 
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.internal.inject.AbstractContainerRequestValueFactory;
 import org.glassfish.jersey.server.internal.inject.AbstractValueFactoryProvider;
 import org.glassfish.jersey.server.internal.inject.MultivaluedParameterExtractor;
@@ -25,17 +41,60 @@ import org.glassfish.jersey.server.model.Parameter;
 @Singleton
 final class PropertiesValueFactoryProvider extends AbstractValueFactoryProvider {
 
+    private static final Logger LOGGER = Logger.getLogger(PropertiesValueFactoryProvider.class.getName());
+
     private final ServiceLocator serviceLocator;
+    private final ConfigPropertiesFactory configPropertiesFactory;
+    private final ConfigProperties configProperties;
     private final boolean i18nEnabled;
+    private final boolean reloadEnabled;
+    private final LocaleRequestFilter localeFilter;
+    /**
+     * With {@code RESOLVE_ON_STARTUP}, the {@code PropertiesStartupValidator}
+     * reports the problems of the injection points, all together, so they are
+     * only logged here at {@code FINE}.
+     */
+    private final Level errorLevel;
+    private final PropertyConverters converters
+            = new PropertyConverters(PropertyConverters.DEFAULT_CACHE_SIZE);
+    private volatile Set<ParamConverterProvider> customConverterProviders;
+    private final String delimiter;
+
+    /**
+     * Value factories are memoized per {@code Parameter}, as Jersey asks for
+     * a new factory each time a field or constructor is injected.
+     */
+    private final ConcurrentMap<Parameter, Factory<?>> valueFactories
+            = new ConcurrentHashMap<Parameter, Factory<?>>();
+
+    /**
+     * {@code PropGroup} factories, shared by all the injection points of the
+     * same type and prefix.
+     */
+    private final ConcurrentMap<List<Object>, PropGroupFactory> groupFactories
+            = new ConcurrentHashMap<List<Object>, PropGroupFactory>();
 
     @Inject
     public PropertiesValueFactoryProvider(MultivaluedParameterExtractorProvider mpep,
             ServiceLocator locator,
-            Configuration configuration) {
+            Configuration configuration,
+            ConfigPropertiesFactory configPropertiesFactory) {
         super(mpep, locator, Parameter.Source.UNKNOWN);
         this.serviceLocator = locator;
+        this.configPropertiesFactory = configPropertiesFactory;
+        this.configProperties = configPropertiesFactory.provide();
         this.i18nEnabled = PropertiesHelper.getValue(configuration.getProperties(),
                 RuntimeType.SERVER, JerseyPropertiesFeature.ENABLE_I18N, false, null);
+        this.reloadEnabled = !i18nEnabled && PropertiesHelper.getValue(configuration.getProperties(),
+                RuntimeType.SERVER, JerseyPropertiesFeature.ENABLE_RELOAD, false, null);
+        this.delimiter = PropertiesHelper.getValue(configuration.getProperties(),
+                RuntimeType.SERVER, JerseyPropertiesFeature.DELIMITER, ",", null);
+        this.errorLevel = PropertiesHelper.getValue(configuration.getProperties(),
+                RuntimeType.SERVER, JerseyPropertiesFeature.RESOLVE_ON_STARTUP, true, null)
+                ? Level.FINE : Level.WARNING;
+        this.localeFilter = i18nEnabled
+                ? new LocaleRequestFilter(((I18NConfigProperties) configProperties).getLocaleNegotiator())
+                : null;
     }
 
     @Singleton
@@ -46,54 +105,371 @@ final class PropertiesValueFactoryProvider extends AbstractValueFactoryProvider
         }
     }
 
-    private static class PropertyFactory extends AbstractContainerRequestValueFactory<Object> {
+    @Singleton
+    static final class PropGroupInjectionResolver extends ParamInjectionResolver<PropGroup> {
+
+        public PropGroupInjectionResolver() {
+            super(PropertiesValueFactoryProvider.class);
+        }
+    }
+
+    /**
+     * A factory whose values can be resolved before the first request.
+     */
+    private interface EagerlyResolvable {
+
+        /**
+         * Resolve the value, filling the cache.
+         *
+         * @param allLocales whether to resolve the value for every locale,
+         * or only for the default locale.
+         */
+        void resolveAll(boolean allLocales);
+    }
+
+    /**
+     * Factory for non-i18n properties. Unless reload is enabled, the
+     * configuration does not change after the feature is configured, so the
+     * value is extracted and converted once, when the resource model is built.
+     */
+    private static class ConstantFactory implements Factory<Object> {
+
+        private final Object value;
+
+        public ConstantFactory(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object provide() {
+            return copyIfArray(value);
+        }
+
+        @Override
+        public void dispose(Object instance) {}
+    }
+
+    /**
+     * Base class of the factories that read the snapshot pinned by the
+     * request.
+     */
+    private abstract static class SnapshotValueFactory extends AbstractContainerRequestValueFactory<Object> {
+
+        protected final ConfigPropertiesFactory configPropertiesFactory;
+
+        SnapshotValueFactory(ConfigPropertiesFactory configPropertiesFactory) {
+            this.configPropertiesFactory = configPropertiesFactory;
+        }
+
+        protected ConfigSnapshot pinnedSnapshot() {
+            ContainerRequest request;
+            try {
+                request = getContainerRequest();
+            } catch (RuntimeException ex) {
+                // not in a request, for instance a singleton created at startup.
+                return configPropertiesFactory.getSnapshot();
+            }
+            return configPropertiesFactory.pin(request);
+        }
+    }
+
+    /**
+     * Factory for reloadable properties. The properties are read from the
+     * snapshot pinned by the request, and the value is cached with the
+     * version of the snapshot it was computed from. When a new snapshot is
+     * published, the value is only extracted again if the raw value of its
+     * key has changed. A request pinned to an older snapshot than the cached
+     * value does not replace it.
+     */
+    private static class ReloadingPropertyFactory extends SnapshotValueFactory implements EagerlyResolvable {
 
         private final MultivaluedParameterExtractor<?> extractor;
-        private final Parameter parameter;
-        private final boolean i18nEnabled;
+        private final String key;
+        private final String defaultValue;
+        private volatile CachedValue cached;
 
-        public PropertyFactory(MultivaluedParameterExtractor<?> extractor, Parameter parameter, boolean i18nEnabled) {
+        public ReloadingPropertyFactory(MultivaluedParameterExtractor<?> extractor,
+                ConfigPropertiesFactory configPropertiesFactory, String key, String defaultValue) {
+            super(configPropertiesFactory);
             this.extractor = extractor;
-            this.parameter = parameter;
-            this.i18nEnabled = i18nEnabled;
+            this.key = key;
+            this.defaultValue = defaultValue;
         }
 
-        @Inject
-        private ConfigProperties properties;
+        @Override
+        public Object provide() {
+            try {
+                return copyIfArray(resolve(pinnedSnapshot()));
+            } catch (Exception ex) {
+                throw new ServerErrorException("Error processing property.", 500, ex);
+            }
+        }
+
+        @Override
+        public void resolveAll(boolean allLocales) {
+            resolve(configPropertiesFactory.getSnapshot());
+        }
+
+        private Object resolve(ConfigSnapshot snapshot) {
+            CachedValue current = cached;
+            if (current != null && current.version == snapshot.getVersion()) {
+                return current.value;
+            }
+
+            ConfigProperties<?, ?> properties = snapshot.getProperties();
+            String raw = properties.getFirst(key);
+            Object value;
+            if (current != null && (raw == null ? current.raw == null : raw.equals(current.raw))) {
+                value = current.value;
+            } else {
+                value = extract(extractor, properties, key, defaultValue);
+            }
+            if (current == null || current.version < snapshot.getVersion()) {
+                cached = new CachedValue(snapshot.getVersion(), raw, value);
+            }
+            return value;
+        }
+
+        private static final class CachedValue {
+
+            final long version;
+            final String raw;
+            final Object value;
+
+            CachedValue(long version, String raw, Object value) {
+                this.version = version;
+                this.raw = raw;
+                this.value = value;
+            }
+        }
+    }
+
+    /**
+     * Factory for {@code PropGroup}s. The values are bound once per snapshot,
+     * so without reload, once.
+     */
+    private static class PropGroupFactory extends SnapshotValueFactory implements EagerlyResolvable {
+
+        private final PropGroupBinding binding;
+        private final boolean reloadEnabled;
+        private volatile BoundGroup bound;
+
+        public PropGroupFactory(PropGroupBinding binding,
+                ConfigPropertiesFactory configPropertiesFactory, boolean reloadEnabled) {
+            super(configPropertiesFactory);
+            this.binding = binding;
+            this.reloadEnabled = reloadEnabled;
+        }
 
         @Override
         public Object provide() {
-            if (i18nEnabled) {
-                List<Locale> languages = getContainerRequest().getAcceptableLanguages();
-                // not wildcard will be null, and ConfigProperties will use its default
-                if (!"*".equals(languages.get(0).toString())) {
-                    Locale locale = languages.get(0);
-                    ThreadLocalLocale.set(locale);
+            try {
+                return resolve(reloadEnabled ? pinnedSnapshot() : configPropertiesFactory.getSnapshot());
+            } catch (Exception ex) {
+                throw new ServerErrorException("Error processing property group.", 500, ex);
+            }
+        }
+
+        @Override
+        public void resolveAll(boolean allLocales) {
+            resolve(configPropertiesFactory.getSnapshot());
+        }
+
+        private Object resolve(ConfigSnapshot snapshot) {
+            BoundGroup current = bound;
+            if (current != null && current.version == snapshot.getVersion()) {
+                return current.value.get();
+            }
+            PropGroupBinding.Bound value = binding.bind(snapshot.getProperties());
+            synchronized (this) {
+                current = bound;
+                if (current == null || current.version < snapshot.getVersion()) {
+                    bound = new BoundGroup(snapshot.getVersion(), value);
+                } else if (current.version == snapshot.getVersion()) {
+                    // bound concurrently, share a single proxy.
+                    value = current.value;
                 }
             }
+            return value.get();
+        }
+
+        private static final class BoundGroup {
+
+            final long version;
+            final PropGroupBinding.Bound value;
+
+            BoundGroup(long version, PropGroupBinding.Bound value) {
+                this.version = version;
+                this.value = value;
+            }
+        }
+    }
+
+    private static class PropertyFactory extends AbstractContainerRequestValueFactory<Object>
+            implements EagerlyResolvable {
+
+        private final MultivaluedParameterExtractor<?> extractor;
+        private final ConfigProperties properties;
+        private final LocaleRequestFilter localeFilter;
+        private final String key;
+        private final String defaultValue;
+        private final LocaleIndexedCache cache;
+
+        public PropertyFactory(MultivaluedParameterExtractor<?> extractor,
+                ConfigProperties properties, LocaleRequestFilter localeFilter,
+                String key, String defaultValue) {
+            this.extractor = extractor;
+            this.properties = properties;
+            this.localeFilter = localeFilter;
+            this.key = key;
+            this.defaultValue = defaultValue;
+            this.cache = new LocaleIndexedCache(properties.localeCount());
+        }
+
+        @Override
+        public Object provide() {
+            Locale locale = null;
+            if (localeFilter != null) {
+                // negotiated once per request by the LocaleRequestFilter
+                locale = localeFilter.resolveLocale(getContainerRequest());
+            }
             try {
-                Object cached = properties.getCachedPropery(parameter);
-                if (cached != null) {
-                    return cached;
-                }
-                Object value = extractor.extract(properties);
-                if (value != null) {
-                    properties.putCachedProperty(parameter, value);
-                }
-                return value;
+                return copyIfArray(resolve(properties.localeIndex(locale)));
             } catch (Exception ex) {
                 throw new ServerErrorException("Error processing property.", 500, ex);
-            } finally {
-                if (i18nEnabled) {
-                    ThreadLocalLocale.remove();
+            }
+        }
+
+        @Override
+        public void resolveAll(boolean allLocales) {
+            if (allLocales) {
+                for (int index = 0; index < properties.localeCount(); index++) {
+                    resolve(index);
+                }
+            } else {
+                resolve(properties.localeIndex(null));
+            }
+        }
+
+        private Object resolve(int index) {
+            Object cached = cache.get(index);
+            if (cached == null) {
+                Object value = extract(extractor, properties.forLocaleIndex(index), key, defaultValue);
+                // a missing property is cached too, and costs the same as a present one.
+                cached = cache.putIfAbsent(index, value != null ? value : LocaleIndexedCache.NULL);
+            }
+            return cached != LocaleIndexedCache.NULL ? cached : null;
+        }
+    }
+
+    /**
+     * Copy an array value, as the cached array is shared by every injection.
+     *
+     * @param value the value.
+     * @return a copy of the value if it is an array, otherwise the value.
+     */
+    private static Object copyIfArray(Object value) {
+        if (value == null || !value.getClass().isArray()) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Extract the property, using the default value of the {@code Prop} if
+     * there is no such property.
+     *
+     * @param extractor the extractor.
+     * @param properties the properties.
+     * @param key the property key.
+     * @param defaultValue the default value, or {@code null} for none.
+     * @return the extracted value.
+     */
+    static Object extract(MultivaluedParameterExtractor<?> extractor,
+            MultivaluedMap<String, String> properties, String key, String defaultValue) {
+        if (defaultValue != null && properties.getFirst(key) == null) {
+            MultivaluedMap<String, String> defaults = new MultivaluedHashMap<String, String>();
+            defaults.putSingle(key, defaultValue);
+            properties = defaults;
+        }
+        return extractor.extract(properties);
+    }
+
+    /**
+     * Resolve the property of the parameter before the first request, filling
+     * the caches. With i18n, only the default locale is resolved, unless all
+     * the bundles are already loaded.
+     *
+     * @param parameter the {@code Prop} parameter.
+     * @return the problem with the property, or {@code null} if there is none.
+     * A property that is not set is not a problem, see {@link #findMissing}.
+     */
+    String resolve(Parameter parameter) {
+        String key = parameter.getSourceName();
+        Factory<?> factory = createValueFactory(parameter);
+        if (factory == null) {
+            return (parameter.isAnnotationPresent(PropGroup.class) ? "property group " : "property ")
+                    + key + " can not be injected as " + parameter.getType();
+        }
+        if (factory instanceof EagerlyResolvable) {
+            boolean allLocales = !i18nEnabled || ((I18NConfigProperties) configProperties).isPreloaded();
+            try {
+                ((EagerlyResolvable) factory).resolveAll(allLocales);
+            } catch (RuntimeException ex) {
+                Throwable cause = ex;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
                 }
+                return "property " + key + " can not be converted to " + parameter.getType() + ": " + cause;
             }
         }
+        return null;
+    }
+
+    /**
+     * Find the properties of the parameter that are not set, and have no
+     * default. With i18n, only the default locale is checked.
+     *
+     * @param parameter the {@code Prop} parameter.
+     * @return the missing properties, or {@code null} if there are none.
+     */
+    String findMissing(Parameter parameter) {
+        String key = parameter.getSourceName();
+        Factory<?> factory = createValueFactory(parameter);
+        if (factory == null) {
+            return null;
+        }
+        if (factory instanceof PropGroupFactory) {
+            List<String> missing = ((PropGroupFactory) factory).binding.missingKeys(configPropertiesFactory.provide());
+            return missing.isEmpty() ? null : "property group " + key + " properties " + missing + " are not set";
+        }
+        if (isPrefixMap(parameter)) {
+            // an empty map is a valid value
+            return null;
+        }
+        if (defaultValue(parameter) == null && configPropertiesFactory.provide().getFirst(key) == null) {
+            return "property " + key + " is not set";
+        }
+        return null;
+    }
+
+    private static String defaultValue(Parameter parameter) {
+        if (isPrefixMap(parameter)) {
+            return null;
+        }
+        String defaultValue = parameter.getAnnotation(Prop.class).defaultValue();
+        return Prop.NO_DEFAULT.equals(defaultValue) ? null : defaultValue;
     }
 
     @Override
     protected Factory<?> createValueFactory(Parameter parameter) {
 
+        if (parameter.isAnnotationPresent(PropGroup.class)) {
+            return getPropGroupFactory(parameter);
+        }
         if (!parameter.isAnnotationPresent(Prop.class)) {
             return null;
         }
@@ -104,12 +480,192 @@ final class PropertiesValueFactoryProvider extends AbstractValueFactoryProvider
             return null;
         }
 
-        MultivaluedParameterExtractor e = get(parameter);
+        Factory<?> factory = valueFactories.get(parameter);
+        if (factory != null) {
+            return factory;
+        }
+
+        MultivaluedParameterExtractor e = getConvertingExtractor(parameter);
+        if (e == null) {
+            e = get(parameter);
+        }
         if (e == null) {
             return null;
         }
 
-        PropertyFactory factory = new PropertyFactory(e, parameter, i18nEnabled);
+        factory = newValueFactory(e, parameter);
+        Factory<?> existing = valueFactories.putIfAbsent(parameter, factory);
+        return existing != null ? existing : factory;
+    }
+
+    /**
+     * Get the {@code PropGroup} factory of the parameter type and prefix.
+     *
+     * @param parameter the {@code PropGroup} parameter.
+     * @return the factory, or {@code null} if the type can not be bound.
+     */
+    private PropGroupFactory getPropGroupFactory(Parameter parameter) {
+        String prefix = parameter.getAnnotation(PropGroup.class).value();
+        List<Object> groupKey = Arrays.<Object>asList(parameter.getRawType(), prefix);
+        PropGroupFactory factory = groupFactories.get(groupKey);
+        if (factory != null) {
+            return factory;
+        }
+        PropGroupBinding binding;
+        try {
+            binding = new PropGroupBinding(parameter.getRawType(), prefix, new PropGroupBinding.ExtractorSource() {
+                @Override
+                public MultivaluedParameterExtractor<?> getExtractor(Parameter member) {
+                    MultivaluedParameterExtractor<?> extractor = getConvertingExtractor(member);
+                    return extractor != null ? extractor : get(member);
+                }
+            });
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(errorLevel, "Can not bind PropGroup " + prefix + ".", ex);
+            return null;
+        }
+        factory = new PropGroupFactory(binding, configPropertiesFactory, reloadEnabled);
+        serviceLocator.inject(factory);
+        PropGroupFactory existing = groupFactories.putIfAbsent(groupKey, factory);
+        return existing != null ? existing : factory;
+    }
+
+    /**
+     * Get an extractor using a built-in converter, unless the application
+     * registered its own {@code ParamConverter} for the type, which then
+     * takes precedence, as with Jersey's extractors.
+     *
+     * @param parameter the parameter.
+     * @return the extractor, or {@code null} if there is no built-in
+     * converter for the type.
+     */
+    private MultivaluedParameterExtractor<?> getConvertingExtractor(Parameter parameter) {
+        if (isPrefixMap(parameter)) {
+            return getPrefixMapExtractor(parameter);
+        }
+        DelimitedExtractor.Shape shape = DelimitedExtractor.Shape.of(parameter.getRawType());
+        if (shape != null) {
+            return getDelimitedExtractor(parameter, shape);
+        }
+        if (parameter.getType() != parameter.getRawType()) {
+            return null;
+        }
+        Class<?> type = parameter.getRawType();
+        PropertyConverter<?> converter = PropertyConverters.forType(type);
+        if (converter == null || hasCustomConverter(type, parameter.getAnnotations())) {
+            return null;
+        }
+        return newConvertingExtractor(parameter.getSourceName(), parameter.getDefaultValue(), type, converter);
+    }
+
+    private static boolean isPrefixMap(Parameter parameter) {
+        return parameter.getRawType() == Map.class && parameter.getSourceName().endsWith(PrefixMapExtractor.WILDCARD);
+    }
+
+    /**
+     * Get an extractor of all the properties under a prefix, as a
+     * {@code Map} from the keys without the prefix to the converted values.
+     *
+     * @param parameter the {@code Map} parameter.
+     * @return the extractor, or {@code null} if the map keys are not strings,
+     * or the values can not be converted by a built-in converter.
+     */
+    private MultivaluedParameterExtractor<?> getPrefixMapExtractor(Parameter parameter) {
+        Class<?> valueType = String.class;
+        if (parameter.getType() instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) parameter.getType()).getActualTypeArguments();
+            if (arguments[0] != String.class || !(arguments[1] instanceof Class)) {
+                return null;
+            }
+            valueType = (Class<?>) arguments[1];
+        }
+        PropertyConverter<?> converter = PropertyConverters.forType(valueType);
+        if (converter == null || hasCustomConverter(valueType, parameter.getAnnotations())) {
+            return null;
+        }
+        return new PrefixMapExtractor(parameter.getSourceName(), valueType, converter, converters);
+    }
+
+    /**
+     * Get an extractor splitting the property into a collection or an array,
+     * if there is a built-in converter for the elements.
+     *
+     * @param parameter the parameter.
+     * @param shape the shape of the parameter type.
+     * @return the extractor, or {@code null} if the elements can not be
+     * converted by a built-in converter.
+     */
+    private MultivaluedParameterExtractor<?> getDelimitedExtractor(Parameter parameter,
+            DelimitedExtractor.Shape shape) {
+        Class<?> elementType;
+        if (shape == DelimitedExtractor.Shape.ARRAY) {
+            elementType = parameter.getRawType().getComponentType();
+        } else {
+            Type type = parameter.getType();
+            if (!(type instanceof ParameterizedType)) {
+                return null;
+            }
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (!(argument instanceof Class)) {
+                return null;
+            }
+            elementType = (Class<?>) argument;
+        }
+        if (shape == DelimitedExtractor.Shape.SORTED_SET && !Comparable.class.isAssignableFrom(elementType)) {
+            return null;
+        }
+        PropertyConverter<?> converter = PropertyConverters.forType(elementType);
+        if (converter == null || hasCustomConverter(elementType, parameter.getAnnotations())) {
+            return null;
+        }
+        String propDelimiter = parameter.getAnnotation(Prop.class).delimiter();
+        return new DelimitedExtractor(parameter.getSourceName(), parameter.getDefaultValue(),
+                propDelimiter.isEmpty() ? delimiter : propDelimiter,
+                shape, elementType, converter, converters);
+    }
+
+    private <T> ConvertingExtractor<T> newConvertingExtractor(String name, String defaultValue,
+            Class<?> type, PropertyConverter<T> converter) {
+        return new ConvertingExtractor<T>(name, defaultValue, type, converter, converters);
+    }
+
+    private boolean hasCustomConverter(Class<?> type, Annotation[] annotations) {
+        if (type.isPrimitive()) {
+            // Jersey never looks up a ParamConverter for primitives either.
+            return false;
+        }
+        Set<ParamConverterProvider> providers = customConverterProviders;
+        if (providers == null) {
+            providers = Providers.getCustomProviders(serviceLocator, ParamConverterProvider.class);
+            customConverterProviders = providers;
+        }
+        for (ParamConverterProvider provider : providers) {
+            if (provider.getConverter(type, type, annotations) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Factory<?> newValueFactory(MultivaluedParameterExtractor<?> extractor, Parameter parameter) {
+        String key = parameter.getSourceName();
+        String defaultValue = defaultValue(parameter);
+        if (reloadEnabled) {
+            ReloadingPropertyFactory factory = new ReloadingPropertyFactory(
+                    extractor, configPropertiesFactory, key, defaultValue);
+            serviceLocator.inject(factory);
+            return factory;
+        }
+        if (!i18nEnabled) {
+            try {
+                return new ConstantFactory(extract(extractor, configProperties, key, defaultValue));
+            } catch (Exception ex) {
+                // report the error on the request, same as a lazily resolved property.
+                LOGGER.log(errorLevel, "Error resolving property " + key + ".", ex);
+            }
+        }
+        PropertyFactory factory
+                = new PropertyFactory(extractor, configProperties, localeFilter, key, defaultValue);
         serviceLocator.inject(factory);
         return factory;
     }
@@ -0,0 +1,53 @@
+package com.github.psamsotha.jersey.properties;
+
+/**
+ * Converts a property value to a type, directly, without reflection.
+ *
+ * @author Paul Samsotha
+ */
+abstract class PropertyConverter<T> {
+
+    private final boolean cacheable;
+
+    /**
+     * @param cacheable whether the conversions are costly enough to cache,
+     * for instance compiling a pattern. The converted values must then be
+     * immutable.
+     */
+    PropertyConverter(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
+    boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Convert the value.
+     *
+     * @param value the property value, not {@code null}.
+     * @return the converted value.
+     * @throws RuntimeException if the value can not be converted.
+     */
+    abstract T convert(String value);
+
+    /**
+     * Whether the value counts as a missing property.
+     *
+     * @param value the property value, not {@code null}.
+     * @return {@code true} if the value is missing.
+     */
+    boolean isMissing(String value) {
+        return false;
+    }
+
+    /**
+     * The value to inject when the property is missing, and there is no
+     * default value.
+     *
+     * @return the missing value.
+     */
+    T missingValue() {
+        return null;
+    }
+}
@@ -0,0 +1,279 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of the built-in {@code PropertyConverter}s: primitives and their
+ * wrappers, {@code String}, enums, {@code URI}, {@code URL}, {@code Path},
+ * {@code Pattern}, and {@code java.time.Duration} when it is available. The
+ * costly conversions are cached per target type and property value, so for
+ * instance a pattern is compiled once, however many injection points, locales
+ * or reloads share the value.
+ *
+ * @author Paul Samsotha
+ */
+final class PropertyConverters {
+
+    /**
+     * Default maximum number of cached conversions.
+     */
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final Map<Class<?>, PropertyConverter<?>> CONVERTERS
+            = new HashMap<Class<?>, PropertyConverter<?>>();
+
+    static {
+        CONVERTERS.put(String.class, new PropertyConverter<String>(false) {
+            @Override
+            String convert(String value) {
+                return value;
+            }
+        });
+        CONVERTERS.put(Boolean.class, new PropertyConverter<Boolean>(false) {
+            @Override
+            Boolean convert(String value) {
+                return Boolean.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(Byte.class, new PropertyConverter<Byte>(false) {
+            @Override
+            Byte convert(String value) {
+                return Byte.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(Short.class, new PropertyConverter<Short>(false) {
+            @Override
+            Short convert(String value) {
+                return Short.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(Integer.class, new PropertyConverter<Integer>(false) {
+            @Override
+            Integer convert(String value) {
+                return Integer.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(Long.class, new PropertyConverter<Long>(false) {
+            @Override
+            Long convert(String value) {
+                return Long.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(Float.class, new PropertyConverter<Float>(false) {
+            @Override
+            Float convert(String value) {
+                return Float.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(Double.class, new PropertyConverter<Double>(false) {
+            @Override
+            Double convert(String value) {
+                return Double.valueOf(value.trim());
+            }
+        });
+        CONVERTERS.put(boolean.class, primitive(Boolean.class, false));
+        CONVERTERS.put(byte.class, primitive(Byte.class, (byte) 0));
+        CONVERTERS.put(short.class, primitive(Short.class, (short) 0));
+        CONVERTERS.put(int.class, primitive(Integer.class, 0));
+        CONVERTERS.put(long.class, primitive(Long.class, 0L));
+        CONVERTERS.put(float.class, primitive(Float.class, 0f));
+        CONVERTERS.put(double.class, primitive(Double.class, 0d));
+
+        CONVERTERS.put(URI.class, new PropertyConverter<URI>(true) {
+            @Override
+            URI convert(String value) {
+                return URI.create(value);
+            }
+        });
+        CONVERTERS.put(URL.class, new PropertyConverter<URL>(true) {
+            @Override
+            URL convert(String value) {
+                try {
+                    return new URL(value);
+                } catch (MalformedURLException ex) {
+                    throw new IllegalArgumentException(ex);
+                }
+            }
+        });
+        CONVERTERS.put(Path.class, new PropertyConverter<Path>(true) {
+            @Override
+            Path convert(String value) {
+                return Paths.get(value);
+            }
+        });
+        CONVERTERS.put(Pattern.class, new PropertyConverter<Pattern>(true) {
+            @Override
+            Pattern convert(String value) {
+                return Pattern.compile(value);
+            }
+        });
+    }
+
+    private static <T> PropertyConverter<T> primitive(Class<T> wrapper, T missingValue) {
+        @SuppressWarnings("unchecked")
+        final PropertyConverter<T> converter = (PropertyConverter<T>) CONVERTERS.get(wrapper);
+        return new ValueOf<T>(missingValue) {
+            @Override
+            T convert(String value) {
+                return converter.convert(value);
+            }
+        };
+    }
+
+    /**
+     * Converter of primitives. Like Jersey's extractors, a blank value is
+     * treated as missing, and a missing primitive is zero or {@code false}.
+     * A wrapper, as with Jersey, converts a blank value like any other, so it
+     * fails, but for a {@code Boolean}, which is {@code false}.
+     */
+    private abstract static class ValueOf<T> extends PropertyConverter<T> {
+
+        private final T missingValue;
+
+        ValueOf(T missingValue) {
+            super(false);
+            this.missingValue = missingValue;
+        }
+
+        @Override
+        boolean isMissing(String value) {
+            return value.trim().isEmpty();
+        }
+
+        @Override
+        T missingValue() {
+            return missingValue;
+        }
+    }
+
+    private final BoundedCache<Conversion, Object> cache;
+
+    PropertyConverters(int cacheSize) {
+        this.cache = new BoundedCache<Conversion, Object>(cacheSize);
+    }
+
+    /**
+     * Get the built-in converter for the type.
+     *
+     * @param type the type.
+     * @return the converter, or {@code null} if there is no built-in
+     * converter.
+     */
+    static PropertyConverter<?> forType(Class<?> type) {
+        PropertyConverter<?> converter = CONVERTERS.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum() && !declaresFromString(type)) {
+            return enumConverter(type);
+        }
+        if (JavaTimeConverters.DURATION.equals(type.getName())) {
+            return JavaTimeConverters.duration(type);
+        }
+        return null;
+    }
+
+    /**
+     * Create the converter of an enum. {@code Class.isEnum} has checked the
+     * type, so the cast only names its type variable.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> PropertyConverter<E> enumConverter(Class<?> type) {
+        return new EnumConverter<E>((Class<E>) type);
+    }
+
+    /**
+     * An enum with its own {@code fromString} is left to Jersey, which
+     * prefers it to {@code valueOf}.
+     */
+    private static boolean declaresFromString(Class<?> type) {
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.getName().equals("fromString")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convert the value, caching the result if the conversion is costly.
+     *
+     * @param converter the converter.
+     * @param type the target type.
+     * @param value the value.
+     * @return the converted value.
+     */
+    <T> T convert(PropertyConverter<T> converter, Class<?> type, String value) {
+        if (!converter.isCacheable()) {
+            return converter.convert(value);
+        }
+        Conversion key = new Conversion(type, value);
+        @SuppressWarnings("unchecked")
+        T converted = (T) cache.get(key);
+        if (converted == null) {
+            converted = converter.convert(value);
+            cache.put(key, converted);
+        }
+        return converted;
+    }
+
+    int cacheSize() {
+        return cache.size();
+    }
+
+    private static final class EnumConverter<E extends Enum<E>> extends PropertyConverter<E> {
+
+        private final Map<String, E> constants = new HashMap<String, E>();
+        private final Class<E> type;
+
+        EnumConverter(Class<E> type) {
+            super(false);
+            this.type = type;
+            for (E constant : type.getEnumConstants()) {
+                constants.put(constant.name(), constant);
+            }
+        }
+
+        @Override
+        E convert(String value) {
+            E constant = constants.get(value);
+            if (constant == null) {
+                throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+            }
+            return constant;
+        }
+    }
+
+    private static final class Conversion {
+
+        private final Class<?> type;
+        private final String value;
+
+        Conversion(Class<?> type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Conversion)) {
+                return false;
+            }
+            Conversion that = (Conversion) o;
+            return type == that.type && value.equals(that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + value.hashCode();
+        }
+    }
+}
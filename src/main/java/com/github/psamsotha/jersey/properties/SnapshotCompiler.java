@@ -0,0 +1,80 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Build step that compiles a class-path properties file, and all the locales
+ * of a resource bundle, into a binary snapshot file, to be used with
+ * {@link JerseyPropertiesFeature#SNAPSHOT_FILE}. Run it with the application
+ * class-path, for instance from the {@code exec-maven-plugin}
+ *
+ * <pre>
+ * java com.github.psamsotha.jersey.properties.SnapshotCompiler \
+ *     --properties app.properties --bundle Messages --locale en-US \
+ *     target/config.snapshot
+ * </pre>
+ *
+ * @author Paul Samsotha
+ */
+public final class SnapshotCompiler {
+
+    private static final String USAGE = "Usage: SnapshotCompiler [--properties <resource-path>]"
+            + " [--bundle <bundle-name> [--locale <default-language-tag>]] <output-file>";
+
+    private SnapshotCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        String resourcePath = null;
+        String bundleName = null;
+        Locale defaultLocale = Locale.getDefault();
+        String output = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--properties".equals(args[i]) && i + 1 < args.length) {
+                resourcePath = args[++i];
+            } else if ("--bundle".equals(args[i]) && i + 1 < args.length) {
+                bundleName = args[++i];
+            } else if ("--locale".equals(args[i]) && i + 1 < args.length) {
+                defaultLocale = Locale.forLanguageTag(args[++i]);
+            } else if (output == null && !args[i].startsWith("--")) {
+                output = args[i];
+            } else {
+                throw new IllegalArgumentException(USAGE);
+            }
+        }
+        if (output == null || (resourcePath == null && bundleName == null)) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        compile(new File(output), resourcePath, bundleName, defaultLocale);
+    }
+
+    /**
+     * Compile the snapshot file.
+     *
+     * @param output the snapshot file to write.
+     * @param resourcePath the class-path resource path of the properties file,
+     * or {@code null}.
+     * @param bundleName the resource bundle name, or {@code null}.
+     * @param defaultLocale the default locale, that the bundle fallbacks are
+     * resolved with. The application must use the same default locale.
+     * @throws IOException if a file can not be read or written.
+     */
+    public static void compile(File output, String resourcePath, String bundleName,
+            Locale defaultLocale) throws IOException {
+        Map<String, String> properties = null;
+        if (resourcePath != null) {
+            properties = new HashMap<String, String>();
+            if (!DefaultPropertiesProvider.loadInto(resourcePath, properties)) {
+                throw new IOException("Properties file " + resourcePath + " could not be loaded.");
+            }
+        }
+        I18NConfigProperties i18nProperties = null;
+        if (bundleName != null) {
+            i18nProperties = new I18NConfigProperties(defaultLocale, bundleName);
+        }
+        SnapshotFile.write(output, properties, i18nProperties);
+    }
+}
@@ -0,0 +1,270 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A precompiled, binary snapshot of the configuration, read with a memory
+ * mapping. The file holds the properties of a properties file, and the
+ * messages of every locale of a resource bundle, with the fallbacks already
+ * resolved, each as a sorted table read in place by
+ * {@code MappedPropertiesMap}. Nothing is parsed at startup, and the pages of
+ * the file are shared by all the JVMs on a host through the OS page cache.
+ *
+ * The layout, in big-endian order, is
+ * <pre>
+ * int    magic
+ * int    format version
+ * long   creation time, in milliseconds
+ * string bundle name, empty if there is none
+ * string default locale language tag, empty if there is no bundle
+ * int    table count
+ * for each table: string name, int position, int length
+ * the tables
+ * </pre>
+ * where a string is an int length followed by its chars. The properties table
+ * is named {@code properties}. A bundle table is named {@code bundle:} for a
+ * locale with a bundle file of its own, and {@code locale:} for the default
+ * locale without one, followed by the language tag.
+ *
+ * @author Paul Samsotha
+ */
+final class SnapshotFile {
+
+    static final int MAGIC = 0x4A505353;
+    static final int FORMAT_VERSION = 1;
+
+    private static final String PROPERTIES_TABLE = "properties";
+    private static final String BUNDLE_TABLE_PREFIX = "bundle:";
+    private static final String LOCALE_TABLE_PREFIX = "locale:";
+
+    private final long createdMillis;
+    private final String bundleName;
+    private final Locale defaultLocale;
+    private final Map<String, String> properties;
+    private final Map<Locale, Map<String, String>> messages;
+    private final List<Locale> bundleLocales;
+
+    private SnapshotFile(long createdMillis, String bundleName, Locale defaultLocale,
+            Map<String, String> properties, Map<Locale, Map<String, String>> messages,
+            List<Locale> bundleLocales) {
+        this.createdMillis = createdMillis;
+        this.bundleName = bundleName;
+        this.defaultLocale = defaultLocale;
+        this.properties = properties;
+        this.messages = messages;
+        this.bundleLocales = bundleLocales;
+    }
+
+    /**
+     * Map the snapshot file.
+     *
+     * @param file the snapshot file.
+     * @return the snapshot.
+     * @throws IOException if the file can not be read, or is not a snapshot
+     * of a supported format version.
+     */
+    static SnapshotFile open(File file) throws IOException {
+        ByteBuffer buffer;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file " + file + " is too large.");
+            }
+            // the mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+        try {
+            return read(buffer);
+        } catch (RuntimeException ex) {
+            throw new IOException("Corrupt snapshot file " + file + ".", ex);
+        }
+    }
+
+    private static SnapshotFile read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a properties snapshot file.");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version
+                    + ", expected " + FORMAT_VERSION + ".");
+        }
+        long createdMillis = buffer.getLong();
+        String bundleName = readString(buffer);
+        String localeTag = readString(buffer);
+
+        Map<String, String> properties = null;
+        Map<Locale, Map<String, String>> messages = new LinkedHashMap<Locale, Map<String, String>>();
+        List<Locale> bundleLocales = new ArrayList<Locale>();
+        int tableCount = buffer.getInt();
+        for (int i = 0; i < tableCount; i++) {
+            String name = readString(buffer);
+            int position = buffer.getInt();
+            int length = buffer.getInt();
+            ByteBuffer table = buffer.duplicate();
+            table.position(position);
+            table.limit(position + length);
+            MappedPropertiesMap map = new MappedPropertiesMap(table.slice());
+            if (PROPERTIES_TABLE.equals(name)) {
+                properties = map;
+            } else if (name.startsWith(BUNDLE_TABLE_PREFIX)) {
+                Locale locale = Locale.forLanguageTag(name.substring(BUNDLE_TABLE_PREFIX.length()));
+                messages.put(locale, map);
+                bundleLocales.add(locale);
+            } else if (name.startsWith(LOCALE_TABLE_PREFIX)) {
+                messages.put(Locale.forLanguageTag(name.substring(LOCALE_TABLE_PREFIX.length())), map);
+            }
+        }
+        return new SnapshotFile(createdMillis,
+                bundleName.isEmpty() ? null : bundleName,
+                localeTag.isEmpty() ? null : Locale.forLanguageTag(localeTag),
+                properties,
+                Collections.unmodifiableMap(messages),
+                Collections.unmodifiableList(bundleLocales));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        char[] chars = new char[buffer.getInt()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar();
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Write a snapshot file.
+     *
+     * @param file the file to write.
+     * @param properties the properties, or {@code null} if there are none.
+     * @param i18nProperties the resource bundle properties, or {@code null}
+     * if there is no bundle.
+     * @throws IOException if the file can not be written.
+     */
+    static void write(File file, Map<String, String> properties,
+            I18NConfigProperties i18nProperties) throws IOException {
+        List<String> names = new ArrayList<String>();
+        List<byte[]> tables = new ArrayList<byte[]>();
+        if (properties != null) {
+            names.add(PROPERTIES_TABLE);
+            tables.add(table(properties));
+        }
+
+        String bundleName = "";
+        String localeTag = "";
+        if (i18nProperties != null) {
+            bundleName = i18nProperties.getBundleName();
+            localeTag = i18nProperties.defaultLocale.toLanguageTag();
+            for (int i = 0; i < i18nProperties.localeCount(); i++) {
+                String prefix = i18nProperties.hasOwnBundle(i) ? BUNDLE_TABLE_PREFIX : LOCALE_TABLE_PREFIX;
+                names.add(prefix + i18nProperties.localeAt(i).toLanguageTag());
+                tables.add(table(i18nProperties.resolvedMessages(i)));
+            }
+        }
+
+        int headerSize = 4 + 4 + 8 + stringSize(bundleName) + stringSize(localeTag) + 4;
+        for (String name : names) {
+            headerSize += stringSize(name) + 4 + 4;
+        }
+
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            writeString(out, bundleName);
+            writeString(out, localeTag);
+            out.writeInt(tables.size());
+            int position = headerSize;
+            for (int i = 0; i < tables.size(); i++) {
+                writeString(out, names.get(i));
+                out.writeInt(position);
+                out.writeInt(tables.get(i).length);
+                position += tables.get(i).length;
+            }
+            for (byte[] table : tables) {
+                out.write(table);
+            }
+            out.flush();
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static byte[] table(Map<String, String> properties) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        PackedPropertiesMap.pack(properties).writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static int stringSize(String string) {
+        return 4 + 2 * string.length();
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        out.writeInt(string.length());
+        out.writeChars(string);
+    }
+
+    long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /**
+     * @return the bundle name, or {@code null} if there is no bundle.
+     */
+    String getBundleName() {
+        return bundleName;
+    }
+
+    /**
+     * @return the default locale the fallbacks were resolved with, or
+     * {@code null} if there is no bundle.
+     */
+    Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    /**
+     * @return the properties, or {@code null} if there are none.
+     */
+    Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return the locales that have a bundle file of their own.
+     */
+    List<Locale> getBundleLocales() {
+        return bundleLocales;
+    }
+
+    /**
+     * @param locale the locale.
+     * @return the resolved messages of the locale, or {@code null} if the
+     * locale has no table.
+     */
+    Map<String, String> getMessages(Locale locale) {
+        return messages.get(locale);
+    }
+}
@@ -0,0 +1,519 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed access to the properties, for code that can not use {@code Prop}
+ * injection, like filters, interceptors or background services. It can be
+ * injected anywhere the feature is registered.
+ *
+ * <pre>
+ * &#64;Inject
+ * private TypedProperties properties;
+ *
+ * int limit = properties.getInt("rate.limit", 100);
+ * long timeout = properties.getDuration("client.timeout", TimeUnit.MILLISECONDS);
+ * </pre>
+ *
+ * Parsed values are cached per key, as primitives, and parsed again only
+ * when the properties are reloaded with a different value. The getters, like
+ * {@link #getInt(String)}, still look up the key on every call, so code reading
+ * a property on every request should hold on to a property handle instead,
+ * like {@link #intProperty(String)}, and read it with {@code get()}.
+ * Blank values count as missing, the same as for {@code Prop} injection. With
+ * i18n, the properties of the default locale are used.
+ *
+ * @author Paul Samsotha
+ */
+public final class TypedProperties {
+
+    private final ConfigPropertiesFactory configPropertiesFactory;
+    private final ConcurrentMap<String, IntProperty> ints
+            = new ConcurrentHashMap<String, IntProperty>();
+    private final ConcurrentMap<String, LongProperty> longs
+            = new ConcurrentHashMap<String, LongProperty>();
+    private final ConcurrentMap<String, BooleanProperty> booleans
+            = new ConcurrentHashMap<String, BooleanProperty>();
+    private final ConcurrentMap<String, LongProperty> durations
+            = new ConcurrentHashMap<String, LongProperty>();
+    private final ConcurrentMap<String, LongProperty> byteSizes
+            = new ConcurrentHashMap<String, LongProperty>();
+
+    TypedProperties(ConfigPropertiesFactory configPropertiesFactory) {
+        this.configPropertiesFactory = configPropertiesFactory;
+    }
+
+    /**
+     * Get the property value.
+     *
+     * @param key the property key.
+     * @return the value, or {@code null} if the property is not set.
+     */
+    public String getString(String key) {
+        return configPropertiesFactory.getSnapshot().getProperties().getFirst(key);
+    }
+
+    /**
+     * Get the property value.
+     *
+     * @param key the property key.
+     * @param defaultValue the value to return if the property is not set.
+     * @return the value.
+     */
+    public String getString(String key, String defaultValue) {
+        String value = getString(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get the properties whose keys start with the prefix, like
+     * {@code feature.flags.}, without the prefix. The keys are found with a
+     * sorted index, not by scanning all the properties.
+     *
+     * @param prefix the prefix.
+     * @return the properties, in key order, unmodifiable.
+     */
+    public Map<String, String> getWithPrefix(String prefix) {
+        return configPropertiesFactory.getSnapshot().getProperties().withPrefix(prefix);
+    }
+
+    /**
+     * Get the property as an {@code int}.
+     *
+     * @param key the property key.
+     * @return the value.
+     * @throws NoSuchElementException if the property is not set.
+     * @throws IllegalArgumentException if the value is not an {@code int}.
+     */
+    public int getInt(String key) {
+        return intProperty(key).get();
+    }
+
+    /**
+     * Get the property as an {@code int}, or the default if the property is
+     * not set.
+     *
+     * @param key the property key.
+     * @param defaultValue the value to return if the property is not set.
+     * @return the value.
+     * @throws IllegalArgumentException if the value is not an {@code int}.
+     */
+    public int getInt(String key, int defaultValue) {
+        return intProperty(key).get(defaultValue);
+    }
+
+    /**
+     * Get the property as a {@code long}.
+     *
+     * @param key the property key.
+     * @return the value.
+     * @throws NoSuchElementException if the property is not set.
+     * @throws IllegalArgumentException if the value is not a {@code long}.
+     */
+    public long getLong(String key) {
+        return longProperty(key).get();
+    }
+
+    /**
+     * Get the property as a {@code long}, or the default if the property is
+     * not set.
+     *
+     * @param key the property key.
+     * @param defaultValue the value to return if the property is not set.
+     * @return the value.
+     * @throws IllegalArgumentException if the value is not a {@code long}.
+     */
+    public long getLong(String key, long defaultValue) {
+        return longProperty(key).get(defaultValue);
+    }
+
+    /**
+     * Get the property as a {@code boolean}. Any value other than
+     * {@code true}, ignoring case, is {@code false}.
+     *
+     * @param key the property key.
+     * @return the value.
+     * @throws NoSuchElementException if the property is not set.
+     */
+    public boolean getBoolean(String key) {
+        return booleanProperty(key).get();
+    }
+
+    /**
+     * Get the property as a {@code boolean}, or the default if the property
+     * is not set. Any value other than {@code true}, ignoring case, is
+     * {@code false}.
+     *
+     * @param key the property key.
+     * @param defaultValue the value to return if the property is not set.
+     * @return the value.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return booleanProperty(key).get(defaultValue);
+    }
+
+    /**
+     * Get the property as a duration, like {@code 500ms}, {@code 30s} or
+     * {@code 5m}. A number without a unit is in milliseconds.
+     *
+     * @param key the property key.
+     * @param unit the unit of the returned duration.
+     * @return the duration, in the unit.
+     * @throws NoSuchElementException if the property is not set.
+     * @throws IllegalArgumentException if the value is not a duration.
+     */
+    public long getDuration(String key, TimeUnit unit) {
+        return unit.convert(property(durations, key, Parser.DURATION).get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the property as a duration, or the default duration if the
+     * property is not set.
+     *
+     * @param key the property key.
+     * @param defaultValue the default duration, in the unit.
+     * @param unit the unit of the default and returned durations.
+     * @return the duration, in the unit.
+     * @throws IllegalArgumentException if the value is not a duration.
+     */
+    public long getDuration(String key, long defaultValue, TimeUnit unit) {
+        LongProperty property = property(durations, key, Parser.DURATION);
+        return property.isSet() ? unit.convert(property.get(), TimeUnit.NANOSECONDS) : defaultValue;
+    }
+
+    /**
+     * Get the property as a number of bytes, like {@code 512}, {@code 64KB}
+     * or {@code 2g}. The units are powers of 1024.
+     *
+     * @param key the property key.
+     * @return the number of bytes.
+     * @throws NoSuchElementException if the property is not set.
+     * @throws IllegalArgumentException if the value is not a byte size.
+     */
+    public long getBytes(String key) {
+        return property(byteSizes, key, Parser.BYTES).get();
+    }
+
+    /**
+     * Get the property as a number of bytes, or the default if the property
+     * is not set.
+     *
+     * @param key the property key.
+     * @param defaultValue the number of bytes to return if the property is
+     * not set.
+     * @return the number of bytes.
+     * @throws IllegalArgumentException if the value is not a byte size.
+     */
+    public long getBytes(String key, long defaultValue) {
+        return property(byteSizes, key, Parser.BYTES).get(defaultValue);
+    }
+
+    /**
+     * Get a handle on the {@code int} property.
+     *
+     * @param key the property key.
+     * @return the property.
+     */
+    public IntProperty intProperty(String key) {
+        IntProperty property = ints.get(key);
+        if (property == null) {
+            property = new IntProperty(key, configPropertiesFactory);
+            IntProperty existing = ints.putIfAbsent(key, property);
+            if (existing != null) {
+                property = existing;
+            }
+        }
+        return property;
+    }
+
+    /**
+     * Get a handle on the {@code long} property.
+     *
+     * @param key the property key.
+     * @return the property.
+     */
+    public LongProperty longProperty(String key) {
+        return property(longs, key, Parser.LONG);
+    }
+
+    /**
+     * Get a handle on the {@code boolean} property.
+     *
+     * @param key the property key.
+     * @return the property.
+     */
+    public BooleanProperty booleanProperty(String key) {
+        BooleanProperty property = booleans.get(key);
+        if (property == null) {
+            property = new BooleanProperty(key, configPropertiesFactory);
+            BooleanProperty existing = booleans.putIfAbsent(key, property);
+            if (existing != null) {
+                property = existing;
+            }
+        }
+        return property;
+    }
+
+    private LongProperty property(ConcurrentMap<String, LongProperty> properties, String key, Parser parser) {
+        LongProperty property = properties.get(key);
+        if (property == null) {
+            property = new LongProperty(key, configPropertiesFactory, parser);
+            LongProperty existing = properties.putIfAbsent(key, property);
+            if (existing != null) {
+                property = existing;
+            }
+        }
+        return property;
+    }
+
+    /**
+     * Parses property values to the bits of a primitive.
+     */
+    private enum Parser {
+
+        INT {
+            @Override
+            long parse(String value) {
+                return Integer.parseInt(value.trim());
+            }
+        },
+        LONG {
+            @Override
+            long parse(String value) {
+                return Long.parseLong(value.trim());
+            }
+        },
+        BOOLEAN {
+            @Override
+            long parse(String value) {
+                return Boolean.parseBoolean(value.trim()) ? 1 : 0;
+            }
+        },
+        DURATION {
+            @Override
+            long parse(String value) {
+                return Durations.parseNanos(value);
+            }
+        },
+        BYTES {
+            @Override
+            long parse(String value) {
+                return ByteSizes.parse(value);
+            }
+        };
+
+        abstract long parse(String value);
+    }
+
+    /**
+     * A property parsed from a snapshot. A value that can not be parsed keeps
+     * the error message, and every read throws a new exception with it, until
+     * the value changes.
+     */
+    private static final class Parsed {
+
+        final long version;
+        final String raw;
+        final boolean set;
+        final long bits;
+        final String error;
+
+        Parsed(long version, String raw, boolean set, long bits, String error) {
+            this.version = version;
+            this.raw = raw;
+            this.set = set;
+            this.bits = bits;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Base class of the property handles. The parsed value is kept with the
+     * version of the snapshot it was parsed from, so reading it is a version
+     * check, and a read of a primitive field.
+     */
+    public abstract static class PropertyHandle {
+
+        private final String key;
+        private final ConfigPropertiesFactory configPropertiesFactory;
+        private final Parser parser;
+        private volatile Parsed parsed;
+
+        PropertyHandle(String key, ConfigPropertiesFactory configPropertiesFactory, Parser parser) {
+            this.key = key;
+            this.configPropertiesFactory = configPropertiesFactory;
+            this.parser = parser;
+        }
+
+        /**
+         * Get the property key.
+         *
+         * @return the key.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Check whether the property is set, whether or not its value can be
+         * converted.
+         *
+         * @return {@code true} if the property is set.
+         */
+        public boolean isSet() {
+            return parsed().set;
+        }
+
+        final long bits() {
+            Parsed current = current();
+            if (!current.set) {
+                throw new NoSuchElementException("Property " + key + " is not set.");
+            }
+            return current.bits;
+        }
+
+        /**
+         * Get the parsed property.
+         *
+         * @throws IllegalArgumentException if the value can not be converted.
+         */
+        final Parsed current() {
+            Parsed current = parsed();
+            if (current.error != null) {
+                throw new IllegalArgumentException(current.error);
+            }
+            return current;
+        }
+
+        private Parsed parsed() {
+            ConfigSnapshot snapshot = configPropertiesFactory.getSnapshot();
+            Parsed current = parsed;
+            if (current == null || current.version != snapshot.getVersion()) {
+                current = parse(snapshot, current);
+            }
+            return current;
+        }
+
+        private Parsed parse(ConfigSnapshot snapshot, Parsed previous) {
+            String raw = snapshot.getProperties().getFirst(key);
+            Parsed next;
+            if (previous != null && (raw == null ? previous.raw == null : raw.equals(previous.raw))) {
+                next = new Parsed(snapshot.getVersion(), raw, previous.set, previous.bits, previous.error);
+            } else if (raw == null || raw.trim().isEmpty()) {
+                next = new Parsed(snapshot.getVersion(), raw, false, 0, null);
+            } else {
+                try {
+                    next = new Parsed(snapshot.getVersion(), raw, true, parser.parse(raw), null);
+                } catch (IllegalArgumentException ex) {
+                    next = new Parsed(snapshot.getVersion(), raw, true, 0,
+                            "Property " + key + " can not be converted: " + raw + " (" + ex.getMessage() + ")");
+                }
+            }
+            if (previous == null || previous.version < next.version) {
+                parsed = next;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Handle on an {@code int} property.
+     */
+    public static final class IntProperty extends PropertyHandle {
+
+        IntProperty(String key, ConfigPropertiesFactory configPropertiesFactory) {
+            super(key, configPropertiesFactory, Parser.INT);
+        }
+
+        /**
+         * Get the value.
+         *
+         * @return the value.
+         * @throws NoSuchElementException if the property is not set.
+         * @throws IllegalArgumentException if the value is not an {@code int}.
+         */
+        public int get() {
+            return (int) bits();
+        }
+
+        /**
+         * Get the value, or the default if the property is not set.
+         *
+         * @param defaultValue the value to return if the property is not set.
+         * @return the value.
+         * @throws IllegalArgumentException if the value is not an {@code int}.
+         */
+        public int get(int defaultValue) {
+            Parsed current = current();
+            return current.set ? (int) current.bits : defaultValue;
+        }
+    }
+
+    /**
+     * Handle on a {@code long} property.
+     */
+    public static final class LongProperty extends PropertyHandle {
+
+        LongProperty(String key, ConfigPropertiesFactory configPropertiesFactory, Parser parser) {
+            super(key, configPropertiesFactory, parser);
+        }
+
+        /**
+         * Get the value.
+         *
+         * @return the value.
+         * @throws NoSuchElementException if the property is not set.
+         * @throws IllegalArgumentException if the value is not a {@code long}.
+         */
+        public long get() {
+            return bits();
+        }
+
+        /**
+         * Get the value, or the default if the property is not set.
+         *
+         * @param defaultValue the value to return if the property is not set.
+         * @return the value.
+         * @throws IllegalArgumentException if the value is not a {@code long}.
+         */
+        public long get(long defaultValue) {
+            Parsed current = current();
+            return current.set ? current.bits : defaultValue;
+        }
+    }
+
+    /**
+     * Handle on a {@code boolean} property.
+     */
+    public static final class BooleanProperty extends PropertyHandle {
+
+        BooleanProperty(String key, ConfigPropertiesFactory configPropertiesFactory) {
+            super(key, configPropertiesFactory, Parser.BOOLEAN);
+        }
+
+        /**
+         * Get the value.
+         *
+         * @return the value.
+         * @throws NoSuchElementException if the property is not set.
+         */
+        public boolean get() {
+            return bits() != 0;
+        }
+
+        /**
+         * Get the value, or the default if the property is not set.
+         *
+         * @param defaultValue the value to return if the property is not set.
+         * @return the value.
+         */
+        public boolean get(boolean defaultValue) {
+            Parsed current = current();
+            return current.set ? current.bits != 0 : defaultValue;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class ConfigPropertiesFactoryTest {
+
+    private static DefaultConfigProperties properties(String value) {
+        return new DefaultConfigProperties(Locale.US, Collections.singletonMap("key", value));
+    }
+
+    @Test
+    public void published_snapshots_should_have_increasing_versions() {
+        ConfigPropertiesFactory factory = new ConfigPropertiesFactory(properties("one"));
+        ConfigSnapshot first = factory.getSnapshot();
+
+        factory.publish(properties("two"));
+        ConfigSnapshot second = factory.getSnapshot();
+
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals("one", first.getProperties().getFirst("key"));
+        assertEquals("two", second.getProperties().getFirst("key"));
+        assertSame(second.getProperties(), factory.provide());
+    }
+}
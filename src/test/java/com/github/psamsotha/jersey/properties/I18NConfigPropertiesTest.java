@@ -0,0 +1,199 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class I18NConfigPropertiesTest {
+
+    private static final String BUNDLE = "Messages";
+    private static final String DISCOVERY_BUNDLE = "Discovery";
+    private static final Locale KLINGON = new Locale("tlh");
+    private static final Locale SERBIAN_LATIN = Locale.forLanguageTag("sr-Latn");
+
+    @Test
+    public void only_locales_with_bundle_files_should_be_indexed() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+
+        // Messages, Messages_de, Messages_de_DE, Messages_en_US, Messages_fr_FR
+        assertEquals(5, props.localeCount());
+        assertTrue(props.keySet().contains(Locale.ROOT));
+        assertTrue(props.keySet().contains(Locale.GERMANY));
+    }
+
+    @Test
+    public void unknown_and_null_locales_should_use_default_index() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+
+        assertEquals(props.localeIndex(Locale.US), props.localeIndex(null));
+        assertEquals(props.localeIndex(Locale.US), props.localeIndex(new Locale("xx", "YY")));
+        assertEquals(props.localeIndex(Locale.US), props.localeIndex(Locale.JAPAN));
+        assertFalse(props.localeIndex(Locale.US) == props.localeIndex(Locale.FRANCE));
+    }
+
+    @Test
+    public void unknown_locales_should_collapse_onto_their_fallback() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+
+        assertEquals(props.localeIndex(Locale.FRANCE), props.localeIndex(new Locale("fr", "FR", "POSIX")));
+    }
+
+    @Test
+    public void random_language_tags_should_not_grow_the_cache() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+        int count = props.localeCount();
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            Locale locale = new Locale(Integer.toString(random.nextInt(), 36), "Z" + i);
+            int index = props.localeIndex(locale);
+            assertTrue(index >= 0 && index < count);
+        }
+        assertEquals(count, props.localeCount());
+    }
+
+    @Test
+    public void bundles_should_be_loaded_on_first_use() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+        assertEquals(1, props.loadedBundleCount());
+
+        assertEquals("Blah in French", props.forLocaleIndex(props.localeIndex(Locale.FRANCE)).getFirst("message"));
+        assertEquals(2, props.loadedBundleCount());
+    }
+
+    @Test
+    public void default_locale_without_bundle_file_should_share_fallback_bundle() {
+        Locale jvmDefault = Locale.getDefault();
+        Locale.setDefault(Locale.ROOT);
+        try {
+            I18NConfigProperties props = new I18NConfigProperties(Locale.ITALY, BUNDLE);
+
+            assertEquals(6, props.localeCount());
+            props.forLocaleIndex(props.localeIndex(Locale.ROOT));
+            assertEquals(1, props.loadedBundleCount());
+            assertEquals("Blah in default English", props.getFirst("message"));
+        } finally {
+            Locale.setDefault(jvmDefault);
+        }
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void missing_bundle_should_fail_at_startup() {
+        new I18NConfigProperties(Locale.US, "NoSuchMessages");
+    }
+
+    @Test
+    public void missing_keys_should_follow_the_fallback_chain() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+        MultivaluedMap<String, String> german = props.forLocaleIndex(props.localeIndex(Locale.GERMANY));
+
+        assertEquals("Blah in German", german.getFirst("message"));
+        assertEquals("Nur auf Deutsch", german.getFirst("language.only"));
+        assertEquals("Only in US English", german.getFirst("us.only"));
+        assertEquals("Nur auf Deutsch", props.forLocaleIndex(props.localeIndex(new Locale("de", "AT"))).getFirst("language.only"));
+        assertNull(german.getFirst("no.such.key"));
+        assertNull(german.get("no.such.key"));
+    }
+
+    @Test
+    public void compiled_table_should_resolve_messages_and_fallbacks() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE,
+                LocaleNegotiator.DEFAULT_CACHE_SIZE, true);
+        assertEquals(5, props.loadedBundleCount());
+
+        assertEquals("Blah in German", props.forLocaleIndex(props.localeIndex(Locale.GERMANY)).getFirst("message"));
+        assertEquals("Blah in French", props.forLocaleIndex(props.localeIndex(Locale.FRANCE)).getFirst("message"));
+        assertEquals("Only in US English", props.forLocaleIndex(props.localeIndex(Locale.FRANCE)).getFirst("us.only"));
+        assertEquals("Nur auf Deutsch", props.forLocaleIndex(props.localeIndex(Locale.GERMANY)).getFirst("language.only"));
+        assertNull(props.forLocaleIndex(props.localeIndex(Locale.FRANCE)).getFirst("no.such.key"));
+    }
+
+    @Test
+    public void lookups_should_not_depend_on_the_calling_thread() throws Exception {
+        final I18NConfigProperties props = new I18NConfigProperties(Locale.US, BUNDLE);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> message = executor.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return props.forLocaleIndex(props.localeIndex(Locale.GERMANY)).getFirst("message");
+                }
+            });
+            assertEquals("Blah in German", message.get());
+            assertEquals("Blah in US English", props.getFirst("message"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void locales_unknown_to_the_jvm_should_be_found() {
+        assertFalse(Arrays.asList(Locale.getAvailableLocales()).contains(KLINGON));
+        I18NConfigProperties props = new I18NConfigProperties(Locale.ROOT, DISCOVERY_BUNDLE);
+
+        assertEquals(3, props.localeCount());
+        assertEquals("Discovered in Klingon",
+                props.forLocaleIndex(props.localeIndex(KLINGON)).getFirst("message"));
+        assertEquals("Discovered in Serbian Latin",
+                props.forLocaleIndex(props.localeIndex(SERBIAN_LATIN)).getFirst("message"));
+    }
+
+    @Test
+    public void configured_locales_should_replace_discovery() {
+        I18NConfigProperties props = new I18NConfigProperties(Locale.ROOT, DISCOVERY_BUNDLE,
+                Arrays.asList(KLINGON, Locale.FRENCH), LocaleNegotiator.DEFAULT_CACHE_SIZE, false);
+
+        // the root bundle, and Klingon; French has no bundle.
+        assertEquals(2, props.localeCount());
+        assertTrue(props.keySet().contains(KLINGON));
+        assertFalse(props.keySet().contains(SERBIAN_LATIN));
+        assertFalse(props.keySet().contains(Locale.FRENCH));
+    }
+
+    @Test
+    public void bundle_locales_should_be_found_in_jars() throws IOException {
+        File jar = File.createTempFile("bundles", ".jar");
+        jar.deleteOnExit();
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (String name : new String[]{"i18n/Jarred.properties", "i18n/Jarred_tlh.properties",
+                    "i18n/Jarred_sr_Latn_RS.properties", "i18n/Jarred_de.txt", "i18n/other/Jarred_fr.properties",
+                    "i18n/JarredMore_it.properties"}) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write("message=jarred\n".getBytes("ISO-8859-1"));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        try {
+            List<Locale> locales = BundleLocales.find("i18n.Jarred", loader);
+            assertEquals(Arrays.asList(Locale.ROOT, Locale.forLanguageTag("sr-Latn-RS"), KLINGON), locales);
+        } finally {
+            loader.close();
+        }
+    }
+}
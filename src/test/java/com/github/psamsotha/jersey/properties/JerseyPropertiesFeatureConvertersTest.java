@@ -0,0 +1,87 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ParamConverter;
+import javax.ws.rs.ext.ParamConverterProvider;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class JerseyPropertiesFeatureConvertersTest extends JerseyTest {
+
+    private static final String CONVERTER_PATH = "converter-path";
+
+    /**
+     * Reads integers in any radix {@code Integer.decode} takes, where the
+     * built-in converter only reads decimals.
+     */
+    public static class DecodingIntegerParamProvider implements ParamConverterProvider {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ParamConverter<T> getConverter(Class<T> rawType, Type genericType, Annotation[] annotations) {
+            if (rawType != Integer.class) {
+                return null;
+            }
+            return (ParamConverter<T>) new ParamConverter<Integer>() {
+
+                @Override
+                public Integer fromString(String value) {
+                    return Integer.decode(value);
+                }
+
+                @Override
+                public String toString(Integer value) {
+                    return value.toString();
+                }
+            };
+        }
+    }
+
+    static class ConverterPropertiesProvider implements PropertiesProvider {
+
+        @Override
+        public Map<String, String> getProperties() {
+            Map<String, String> props = new HashMap<String, String>();
+            props.put("hex.prop", "0x2A");
+            return props;
+        }
+    }
+
+    @Path(CONVERTER_PATH)
+    public static class ConverterResource {
+
+        @GET
+        public String get(@Prop("hex.prop") Integer hex) {
+            return String.valueOf(hex);
+        }
+    }
+
+    @Override
+    public ResourceConfig configure() {
+        return new ResourceConfig(ConverterResource.class)
+                .register(new JerseyPropertiesFeature(new ConverterPropertiesProvider()))
+                .register(DecodingIntegerParamProvider.class)
+                .property(JerseyPropertiesFeature.DISABLE_DEFAULT_PROPERTIES_PROVIDER, true);
+    }
+
+    @Test
+    public void custom_param_converter_should_take_precedence_over_built_in_converter() {
+        Response response = target(CONVERTER_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("42", response.readEntity(String.class));
+        response.close();
+    }
+}
@@ -1,7 +1,12 @@
 package com.github.psamsotha.jersey.properties;
 
 import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
 import java.util.logging.Logger;
+import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.Response;
@@ -45,6 +50,11 @@ public class JerseyPropertiesFeatureDataTypesTest extends JerseyTest {
     private static final String HELLO_PROP_KEY = "hello.prop";
     private static final String HELLO_PROP_VALUE = "Hello Props";
 
+    private static final String DEFAULT_PATH = "default-path";
+    private static final String COLLECTION_PATH = "collection-path";
+    private static final String TYPED_PATH = "typed-path";
+    private static final String PREFIX_PATH = "prefix-path";
+
     @Path(PROPERTY_RESOURCE_PATH)
     public static class OtherTypesPropertiesResource {
 
@@ -81,6 +91,45 @@ public class JerseyPropertiesFeatureDataTypesTest extends JerseyTest {
             return String.valueOf(value);
         }
 
+        @GET
+        @Path(DEFAULT_PATH)
+        public String getDefault(@Prop(value = "missing.int", defaultValue = "42") int missing,
+                                 @Prop(value = INT_PROP_KEY, defaultValue = "0") int present,
+                                 @Prop("missing.string") String noDefault) {
+            return missing + "; " + present + "; " + noDefault;
+        }
+
+        @GET
+        @Path(COLLECTION_PATH)
+        public String getCollections(@Prop("hosts.prop") List<String> hosts,
+                                     @Prop(value = "ports.prop", delimiter = "|") SortedSet<Integer> ports,
+                                     @Prop(value = "ports.prop", delimiter = "|") int[] portArray,
+                                     @Prop("missing.list") List<String> missing) {
+            portArray[0] = -1;
+            return hosts + "; " + ports + "; " + portArray.length + "; " + missing;
+        }
+
+        @GET
+        @Path(PREFIX_PATH)
+        public String getPrefixed(@Prop("feature.flags.*") Map<String, String> flags,
+                                  @Prop("feature.flags.*") Map<String, Boolean> enabled,
+                                  @Prop("no.such.prefix.*") Map<String, String> none) {
+            return flags + "; " + enabled.get("beta").getClass().getSimpleName() + "; " + none
+                    + "; " + typedProperties.getWithPrefix("feature.flags.").keySet();
+        }
+
+        @Inject
+        private TypedProperties typedProperties;
+
+        @GET
+        @Path(TYPED_PATH)
+        public String getTyped() {
+            return typedProperties.getInt(INT_PROP_KEY) + "; "
+                    + typedProperties.getBoolean(BOOLEAN_PROP_KEY) + "; "
+                    + typedProperties.getLong("missing.long", 7L) + "; "
+                    + typedProperties.getString(HELLO_PROP_KEY);
+        }
+
         @GET
         @Path(HELLO_PATH)
         public String getHello(@Prop(HELLO_PROP_KEY) HelloProperty prop) {
@@ -151,4 +200,45 @@ public class JerseyPropertiesFeatureDataTypesTest extends JerseyTest {
         response.close();
         assertEquals(HELLO_PROP_VALUE, message);
     }
+
+    @Test
+    public void default_value_should_be_used_for_missing_property() {
+        for (int i = 0; i < 2; i++) {
+            Response response = target(PROPERTY_RESOURCE_PATH).path(DEFAULT_PATH).request().get();
+            assertEquals(200, response.getStatus());
+            String message = response.readEntity(String.class);
+            response.close();
+            assertEquals("42; " + INT_PROP_VALUE + "; null", message);
+        }
+    }
+
+    @Test
+    public void delimited_properties_should_inject_as_collections() {
+        for (int i = 0; i < 2; i++) {
+            Response response = target(PROPERTY_RESOURCE_PATH).path(COLLECTION_PATH).request().get();
+            assertEquals(200, response.getStatus());
+            String message = response.readEntity(String.class);
+            response.close();
+            assertEquals(Arrays.asList("a.example.com", "b.example.com", "c.example.com") + "; [80, 443]; 3; []",
+                    message);
+        }
+    }
+
+    @Test
+    public void typed_properties_should_be_injectable() {
+        Response response = target(PROPERTY_RESOURCE_PATH).path(TYPED_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        String message = response.readEntity(String.class);
+        response.close();
+        assertEquals(INT_PROP_VALUE + "; true; 7; " + HELLO_PROP_VALUE, message);
+    }
+
+    @Test
+    public void prefixed_properties_should_inject_as_map() {
+        Response response = target(PROPERTY_RESOURCE_PATH).path(PREFIX_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        String message = response.readEntity(String.class);
+        response.close();
+        assertEquals("{alpha=false, beta=true}; Boolean; {}; [alpha, beta]", message);
+    }
 }
@@ -5,9 +5,12 @@ import java.util.Locale;
 import java.util.logging.Logger;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 
 import org.glassfish.jersey.filter.LoggingFilter;
+import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.test.JerseyTest;
 
@@ -22,9 +25,8 @@ public class JerseyPropertiesFeatureI18NTest extends JerseyTest {
     
     private static final String MESSAGE_PROP = "message";
     private static final String PROPERTIES_PATH = "properties-path";
-    private static final String THREAD_LOCAL_PATH = "thread-local-path";
-    private static final String NO_THREAD_LOCAL_MESSAGE = "No locale in thread local";
-    private static final String HAS_THREAD_LOCAL_MESSAGE = "Has locale in thread local";
+    private static final String REQUEST_LOCALE_PATH = "request-locale-path";
+    private static final String MISSING_PATH = "missing-path";
     
     private static final String EN_US_MESSAGE = "Blah in US English";
     private static final String DE_DE_MESSAGE = "Blah in German";
@@ -39,14 +41,16 @@ public class JerseyPropertiesFeatureI18NTest extends JerseyTest {
         }
         
         @GET
-        @Path(THREAD_LOCAL_PATH)
-        public String get() {
-            Locale locale = ThreadLocalLocale.get();
-            if (locale == null) {
-                return NO_THREAD_LOCAL_MESSAGE;
-            } else {
-                return HAS_THREAD_LOCAL_MESSAGE;
-            }
+        @Path(MISSING_PATH)
+        public String getMissing(@Prop(value = "missing.message", defaultValue = "Default message") String message,
+                                 @Prop("missing.other") String other) {
+            return message + "; " + other;
+        }
+
+        @GET
+        @Path(REQUEST_LOCALE_PATH)
+        public String getRequestLocale(@Context ContainerRequestContext request) {
+            return String.valueOf(request.getProperty(LocaleRequestFilter.LOCALE_PROPERTY));
         }
     }
     
@@ -91,12 +95,53 @@ public class JerseyPropertiesFeatureI18NTest extends JerseyTest {
     }
     
     @Test
-    public void should_be_no_thread_local_locale() {
-        Response response = target(PROPERTIES_PATH).path(THREAD_LOCAL_PATH).request()
-                .acceptLanguage(new Locale("de", "DE"))
+    public void should_match_language_and_quality() {
+        Response response = target(PROPERTIES_PATH).request()
+                .header("Accept-Language", "ja, fr-CA;q=0.9, de;q=0.8")
+                .get();
+        assertEquals(200, response.getStatus());
+        String message = response.readEntity(String.class);
+        assertEquals(FR_FR_MESSAGE, message);
+    }
+    
+    @Test
+    public void should_store_negotiated_locale_on_request() {
+        Response response = target(PROPERTIES_PATH).path(REQUEST_LOCALE_PATH).request()
+                .header("Accept-Language", "de-DE")
                 .get();
         assertEquals(200, response.getStatus());
         String message = response.readEntity(String.class);
-        assertEquals(NO_THREAD_LOCAL_MESSAGE, message);
+        assertEquals(Locale.GERMANY.toString(), message);
+    }
+
+    @Test
+    public void missing_message_should_use_default_value() {
+        for (Locale locale : new Locale[]{Locale.FRANCE, Locale.FRANCE, Locale.GERMANY}) {
+            Response response = target(PROPERTIES_PATH).path(MISSING_PATH).request()
+                    .acceptLanguage(locale)
+                    .get();
+            assertEquals(200, response.getStatus());
+            assertEquals("Default message; null", response.readEntity(String.class));
+            response.close();
+        }
+    }
+
+    @Test
+    public void lazy_providers_should_be_rejected_with_i18n() {
+        LazyPropertiesProvider lazy = new LazyPropertiesProvider() {
+            @Override
+            public String getProperty(String key) {
+                return null;
+            }
+        };
+        try {
+            new ApplicationHandler(new ResourceConfig(I18NPropertiesResource.class)
+                    .register(new JerseyPropertiesFeature(lazy))
+                    .property(JerseyPropertiesFeature.ENABLE_I18N, true)
+                    .property(JerseyPropertiesFeature.RESOURCE_BUNDLE, "Messages"));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("LazyPropertiesProvider"));
+        }
     }
 }
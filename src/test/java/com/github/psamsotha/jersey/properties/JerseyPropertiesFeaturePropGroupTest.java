@@ -0,0 +1,148 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class JerseyPropertiesFeaturePropGroupTest extends JerseyTest {
+
+    private static final String GROUP_PATH = "group-path";
+    private static final String TO_STRING_PATH = "to-string-path";
+    private static final String CHANGE_PATH = "change-path";
+
+    public interface DbConfig {
+
+        URI url();
+
+        int getPoolSize();
+
+        boolean isReadOnly();
+
+        @Prop(value = "replicas")
+        List<String> replicaHosts();
+
+        @Prop(value = "timeout", defaultValue = "30")
+        long timeoutSeconds();
+
+        String password();
+    }
+
+    public static class HttpConfig {
+
+        private String agent;
+        private int retries;
+        @Prop(value = "max-connections", defaultValue = "8")
+        private int maxConnections;
+    }
+
+    static class GroupPropertiesProvider implements PropertiesProvider {
+
+        @Override
+        public Map<String, String> getProperties() {
+            Map<String, String> props = new HashMap<String, String>();
+            props.put("db.url", "jdbc:h2:mem:test");
+            props.put("db.password", "secret");
+            props.put("db.poolSize", "20");
+            props.put("db.readOnly", "true");
+            props.put("db.replicas", "r1, r2");
+            props.put("http.agent", "test-agent");
+            props.put("http.retries", "3");
+            return props;
+        }
+    }
+
+    @Path(GROUP_PATH)
+    public static class GroupResource {
+
+        @PropGroup("http")
+        private HttpConfig http;
+
+        @GET
+        public String get(@PropGroup("db") DbConfig db, @PropGroup("db") DbConfig sameDb) {
+            return db.url() + "; " + db.getPoolSize() + "; " + db.isReadOnly() + "; "
+                    + db.replicaHosts() + "; " + db.timeoutSeconds() + "; " + (db == sameDb) + "; "
+                    + http.agent + "; " + http.retries + "; " + http.maxConnections;
+        }
+
+        @GET
+        @Path(CHANGE_PATH)
+        public String change(@PropGroup("http") HttpConfig other) {
+            String message = http.retries + "; " + (http == other);
+            http.retries = 0;
+            other.agent = null;
+            return message;
+        }
+
+        @GET
+        @Path(TO_STRING_PATH)
+        public String getString(@PropGroup("db") DbConfig db) {
+            return db.toString();
+        }
+    }
+
+    @Override
+    public ResourceConfig configure() {
+        return new ResourceConfig(GroupResource.class)
+                .register(new JerseyPropertiesFeature(new GroupPropertiesProvider()))
+                .property(JerseyPropertiesFeature.DISABLE_DEFAULT_PROPERTIES_PROVIDER, true)
+                .property(JerseyPropertiesFeature.FAIL_ON_PROPERTY_ERRORS, true);
+    }
+
+    @Test
+    public void prop_groups_should_bind_prefixed_properties() {
+        for (int i = 0; i < 2; i++) {
+            Response response = target(GROUP_PATH).request().get();
+            assertEquals(200, response.getStatus());
+            String message = response.readEntity(String.class);
+            response.close();
+            assertEquals("jdbc:h2:mem:test; 20; true; [r1, r2]; 30; true; test-agent; 3; 8", message);
+        }
+    }
+
+    @Test
+    public void prop_group_to_string_should_not_print_values() {
+        Response response = target(GROUP_PATH).path(TO_STRING_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        String message = response.readEntity(String.class);
+        response.close();
+        assertTrue(message, message.startsWith("DbConfig[prefix=db, keys=["));
+        assertTrue(message, message.contains("db.password"));
+        assertFalse(message, message.contains("secret"));
+        assertFalse(message, message.contains("jdbc"));
+    }
+
+    @Test
+    public void class_groups_should_not_share_changed_fields() {
+        for (int i = 0; i < 2; i++) {
+            Response response = target(GROUP_PATH).path(CHANGE_PATH).request().get();
+            assertEquals(200, response.getStatus());
+            assertEquals("3; false", response.readEntity(String.class));
+            response.close();
+        }
+        Response response = target(GROUP_PATH).request().get();
+        assertEquals("jdbc:h2:mem:test; 20; true; [r1, r2]; 30; true; test-agent; 3; 8",
+                response.readEntity(String.class));
+        response.close();
+    }
+
+    @Test
+    public void method_names_should_map_to_property_names() {
+        assertEquals("poolSize", PropGroupBinding.propertyName("getPoolSize"));
+        assertEquals("readOnly", PropGroupBinding.propertyName("isReadOnly"));
+        assertEquals("issuer", PropGroupBinding.propertyName("issuer"));
+        assertEquals("get", PropGroupBinding.propertyName("get"));
+    }
+}
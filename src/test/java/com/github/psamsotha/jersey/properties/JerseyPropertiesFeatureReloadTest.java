@@ -0,0 +1,181 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.filter.LoggingFilter;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class JerseyPropertiesFeatureReloadTest extends JerseyTest {
+
+    private static final String RESOURCE = "/reload.properties";
+    private static final String PROPERTY_PATH = "property";
+    private static final String SINGLETON_PATH = "singleton";
+    private static final String MESSAGE_FORMAT = "%s; %s";
+
+    private static final long RELOAD_TIMEOUT_MILLIS = 20000;
+    private static final long RELOAD_SETTLE_MILLIS = 1000;
+
+    private static File propertiesFile;
+
+    @Path(PROPERTY_PATH)
+    public static class ReloadResource {
+
+        @GET
+        public String get(@Prop("changed.prop") String changed, @Prop("same.prop") String same) {
+            return String.format(MESSAGE_FORMAT, changed, same);
+        }
+    }
+
+    @Singleton
+    @Path(SINGLETON_PATH)
+    public static class SingletonResource {
+
+        private final String same;
+
+        public SingletonResource(@Prop("same.prop") String same) {
+            this.same = same;
+        }
+
+        @GET
+        public String get() {
+            return same;
+        }
+    }
+
+    @BeforeClass
+    public static void writePropertiesFile() throws IOException, URISyntaxException {
+        File classes = new File(JerseyPropertiesFeatureReloadTest.class.getResource("/app.properties").toURI())
+                .getParentFile();
+        propertiesFile = new File(classes, RESOURCE.substring(1));
+        write("changed.prop=before\nsame.prop=same\n");
+    }
+
+    @AfterClass
+    public static void deletePropertiesFile() {
+        propertiesFile.delete();
+    }
+
+    private static void write(String content) throws IOException {
+        OutputStream out = new FileOutputStream(propertiesFile);
+        try {
+            out.write(content.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+    }
+
+    @Override
+    public ResourceConfig configure() {
+        return new ResourceConfig(ReloadResource.class, SingletonResource.class)
+                .register(JerseyPropertiesFeature.class)
+                .property(JerseyPropertiesFeature.RESOURCE_PATH, RESOURCE)
+                .property(JerseyPropertiesFeature.ENABLE_RELOAD, true)
+                .register(new LoggingFilter(Logger.getAnonymousLogger(), true));
+    }
+
+    private String get() {
+        Response response = target(PROPERTY_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        String message = response.readEntity(String.class);
+        response.close();
+        return message;
+    }
+
+    @Test
+    public void singleton_should_be_injected() {
+        Response response = target(SINGLETON_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("same", response.readEntity(String.class));
+        response.close();
+    }
+
+    private String awaitReload(String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MILLIS;
+        String message = get();
+        while (!expected.equals(message) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            message = get();
+        }
+        return message;
+    }
+
+    @Test
+    public void changed_file_should_be_reloaded() throws Exception {
+        assertEquals(String.format(MESSAGE_FORMAT, "before", "same"), get());
+
+        write("changed.prop=after\nsame.prop=same\n");
+
+        String expected = String.format(MESSAGE_FORMAT, "after", "same");
+        assertEquals(expected, awaitReload(expected));
+    }
+
+    @Test
+    public void empty_file_should_keep_current_properties() throws Exception {
+        String current = get();
+        try {
+            write("");
+            Thread.sleep(RELOAD_SETTLE_MILLIS);
+            assertEquals(current, get());
+
+            // the watcher still reloads once the file is written again
+            write("changed.prop=rewritten\nsame.prop=same\n");
+            String expected = String.format(MESSAGE_FORMAT, "rewritten", "same");
+            assertEquals(expected, awaitReload(expected));
+        } finally {
+            write("changed.prop=before\nsame.prop=same\n");
+        }
+    }
+
+    @Test
+    public void writes_to_other_files_should_not_postpone_reload() throws Exception {
+        final File other = new File(propertiesFile.getParentFile(), "reload-neighbour.txt");
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (writing.get()) {
+                    try {
+                        OutputStream out = new FileOutputStream(other);
+                        out.write(1);
+                        out.close();
+                        Thread.sleep(20);
+                    } catch (IOException | InterruptedException ex) {
+                        return;
+                    }
+                }
+            }
+        });
+        writer.start();
+        try {
+            write("changed.prop=neighbour\nsame.prop=same\n");
+            String expected = String.format(MESSAGE_FORMAT, "neighbour", "same");
+            assertEquals(expected, awaitReload(expected));
+        } finally {
+            writing.set(false);
+            writer.join();
+            other.delete();
+            write("changed.prop=before\nsame.prop=same\n");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static junit.framework.Assert.assertEquals;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class JerseyPropertiesFeatureSnapshotTest extends JerseyTest {
+
+    private static final String PROPERTY_PATH = "property";
+
+    private static File snapshotFile;
+
+    @Path(PROPERTY_PATH)
+    public static class SnapshotResource {
+
+        @GET
+        public String get(@Prop("hello.prop") String hello,
+                          @Prop("field.prop") String field,
+                          @Prop("config.prop") String config) {
+            return hello + "; " + field + "; " + config;
+        }
+    }
+
+    static class OverridingPropertiesProvider implements PropertiesProvider {
+
+        @Override
+        public Map<String, String> getProperties() {
+            return Collections.singletonMap("field.prop", "overridden");
+        }
+    }
+
+    @BeforeClass
+    public static void compileSnapshot() throws IOException {
+        snapshotFile = File.createTempFile("config", ".snapshot");
+        snapshotFile.deleteOnExit();
+        SnapshotCompiler.main(new String[]{
+            "--properties", "/app.properties", snapshotFile.getPath()});
+    }
+
+    @Override
+    public ResourceConfig configure() {
+        return new ResourceConfig(SnapshotResource.class)
+                .register(new JerseyPropertiesFeature(new OverridingPropertiesProvider()))
+                .property(JerseyPropertiesFeature.SNAPSHOT_FILE, snapshotFile.getPath())
+                .property(JerseyPropertiesFeature.DEFAULT_LOCALE, Locale.US)
+                .property("config.prop", "fromConfig");
+    }
+
+    @Test
+    public void properties_should_be_served_from_snapshot() {
+        Response response = target(PROPERTY_PATH).request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("Hello Props; overridden; fromConfig", response.readEntity(String.class));
+        response.close();
+    }
+}
@@ -0,0 +1,99 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class LazyPropertiesMapTest {
+
+    static class CountingProvider implements LazyPropertiesProvider {
+
+        final Map<String, String> store = new HashMap<String, String>();
+        final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public String getProperty(String key) {
+            lookups.incrementAndGet();
+            return store.get(key);
+        }
+    }
+
+    @Test
+    public void loaded_properties_should_take_precedence() {
+        CountingProvider provider = new CountingProvider();
+        provider.store.put("key", "lazy");
+        LazyPropertiesMap map = new LazyPropertiesMap(Collections.singletonMap("key", "loaded"),
+                new LazyPropertiesProvider[]{provider}, 16);
+
+        assertEquals("loaded", map.get("key"));
+        assertEquals(0, provider.lookups.get());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void references_to_lazy_properties_should_be_looked_up_once() {
+        CountingProvider provider = new CountingProvider();
+        provider.store.put("secret.host", "vault.example.com");
+        Map<String, String> loaded = Collections.singletonMap("url", "https://${secret.host}");
+        LazyPropertiesMap lazyMap = new LazyPropertiesMap(loaded, new LazyPropertiesProvider[]{provider}, 16);
+
+        Map<String, String> expanded = new PropertiesInterpolator(Collections.<String, String>emptyMap(),
+                Collections.emptyMap()).expand(loaded, lazyMap);
+        LazyPropertiesMap map = lazyMap.withLoaded(
+                new LayeredPropertiesMap(Arrays.asList(expanded, loaded)));
+
+        assertEquals("https://vault.example.com", map.get("url"));
+        assertEquals("vault.example.com", map.get("secret.host"));
+        assertEquals(1, provider.lookups.get());
+    }
+
+    @Test
+    public void lookups_should_be_cached() {
+        CountingProvider first = new CountingProvider();
+        CountingProvider second = new CountingProvider();
+        first.store.put("key", "first");
+        second.store.put("key", "second");
+        second.store.put("other", "second");
+        LazyPropertiesMap map = new LazyPropertiesMap(Collections.<String, String>emptyMap(),
+                new LazyPropertiesProvider[]{first, second}, 16);
+
+        assertEquals("first", map.get("key"));
+        assertEquals("first", map.get("key"));
+        assertEquals("second", map.get("other"));
+        assertEquals(2, first.lookups.get());
+        assertEquals(1, second.lookups.get());
+    }
+
+    @Test
+    public void missing_keys_should_be_cached() {
+        CountingProvider provider = new CountingProvider();
+        LazyPropertiesMap map = new LazyPropertiesMap(Collections.<String, String>emptyMap(),
+                new LazyPropertiesProvider[]{provider}, 16);
+
+        assertNull(map.get("missing"));
+        assertFalse(map.containsKey("missing"));
+        assertEquals(1, provider.lookups.get());
+    }
+
+    @Test
+    public void cache_should_be_bounded() {
+        CountingProvider provider = new CountingProvider();
+        LazyPropertiesMap map = new LazyPropertiesMap(Collections.<String, String>emptyMap(),
+                new LazyPropertiesProvider[]{provider}, 16);
+
+        for (int i = 0; i < 1000; i++) {
+            map.get("key." + i);
+        }
+        assertTrue(map.cacheSize() <= 16);
+    }
+}
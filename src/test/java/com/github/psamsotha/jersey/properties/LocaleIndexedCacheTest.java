@@ -0,0 +1,60 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class LocaleIndexedCacheTest {
+
+    private static final int THREADS = 64;
+    private static final int LOCALES = 16;
+    private static final int ROUNDS = 200;
+
+    @Test
+    public void concurrent_puts_should_agree_on_one_value_per_locale() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                final LocaleIndexedCache cache = new LocaleIndexedCache(LOCALES);
+                final CountDownLatch start = new CountDownLatch(1);
+                List<Future<Object[]>> results = new ArrayList<Future<Object[]>>();
+                for (int t = 0; t < THREADS; t++) {
+                    results.add(executor.submit(new Callable<Object[]>() {
+                        @Override
+                        public Object[] call() throws Exception {
+                            start.await();
+                            Object[] seen = new Object[LOCALES];
+                            for (int i = 0; i < LOCALES; i++) {
+                                seen[i] = cache.putIfAbsent(i, new Object());
+                            }
+                            return seen;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                for (Future<Object[]> result : results) {
+                    Object[] seen = result.get();
+                    for (int i = 0; i < LOCALES; i++) {
+                        assertNotNull(cache.get(i));
+                        assertSame(cache.get(i), seen[i]);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class LocaleNegotiatorTest {
+
+    private final LocaleNegotiator negotiator = new LocaleNegotiator(
+            Arrays.asList(Locale.FRANCE, Locale.GERMANY, new Locale("de")), Locale.US, 16);
+
+    @Test
+    public void missing_or_wildcard_header_should_use_default_locale() {
+        assertEquals(Locale.US, negotiator.negotiate(null));
+        assertEquals(Locale.US, negotiator.negotiate(""));
+        assertEquals(Locale.US, negotiator.negotiate("*"));
+    }
+
+    @Test
+    public void exact_match_should_be_preferred() {
+        assertEquals(Locale.GERMANY, negotiator.negotiate("de-DE"));
+        assertEquals(new Locale("de"), negotiator.negotiate("de"));
+    }
+
+    @Test
+    public void language_should_match_supported_region() {
+        assertEquals(Locale.FRANCE, negotiator.negotiate("fr-CA"));
+        assertEquals(Locale.US, negotiator.negotiate("en-GB"));
+    }
+
+    @Test
+    public void ranges_should_be_tried_in_quality_order() {
+        assertEquals(Locale.FRANCE, negotiator.negotiate("de;q=0.5, fr;q=0.9"));
+        assertEquals(Locale.GERMANY, negotiator.negotiate("ja, de-DE;q=0.8, fr;q=0.7"));
+        assertEquals(Locale.US, negotiator.negotiate("fr;q=0, ja"));
+    }
+
+    @Test
+    public void malformed_header_should_use_default_locale() {
+        assertEquals(Locale.US, negotiator.negotiate("not a;;valid==header"));
+    }
+
+    @Test
+    public void cache_should_stay_bounded() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Locale.US, negotiator.negotiate("x" + i));
+        }
+        assertTrue(negotiator.getCacheEvictions() > 0);
+    }
+}
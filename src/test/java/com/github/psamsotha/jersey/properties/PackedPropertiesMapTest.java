@@ -0,0 +1,63 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PackedPropertiesMapTest {
+
+    @Test
+    public void packed_map_should_equal_source_map() {
+        Map<String, String> source = new HashMap<String, String>();
+        for (int i = 0; i < 1000; i++) {
+            source.put("key." + i, "value." + i);
+        }
+        source.put("", "empty key");
+        source.put("empty.value", "");
+        source.put("unicode.é", "中");
+
+        PackedPropertiesMap packed = PackedPropertiesMap.pack(source);
+
+        assertEquals(source.size(), packed.size());
+        assertEquals(source, packed);
+        assertEquals(source.hashCode(), packed.hashCode());
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            assertTrue(packed.containsKey(entry.getKey()));
+            assertEquals(entry.getValue(), packed.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void missing_keys_should_not_be_found() {
+        Map<String, String> source = new HashMap<String, String>();
+        source.put("b", "1");
+        source.put("bb", "2");
+        source.put("d", "3");
+        source.put("null.value", null);
+        PackedPropertiesMap packed = PackedPropertiesMap.pack(source);
+
+        assertEquals(3, packed.size());
+        assertNull(packed.get("a"));
+        assertNull(packed.get("ba"));
+        assertNull(packed.get("c"));
+        assertNull(packed.get("e"));
+        assertNull(packed.get("null.value"));
+        assertNull(packed.get(1));
+        assertFalse(packed.containsKey("bbb"));
+        assertEquals(-2, packed.indexOf("ba"));
+    }
+
+    @Test
+    public void empty_map_should_be_packed() {
+        PackedPropertiesMap packed = PackedPropertiesMap.pack(new HashMap<String, String>());
+        assertTrue(packed.isEmpty());
+        assertNull(packed.get("key"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PrefixIndexTest {
+
+    private static Map<String, String> properties() {
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("feature.flags.beta", "on");
+        map.put("feature.flags.alpha", "off");
+        map.put("feature.flagship", "x");
+        map.put("feature.flags", "root");
+        map.put("zzz", "last");
+        map.put("aaa", "first");
+        return map;
+    }
+
+    private static void assertPrefixQueries(PrefixIndex index) {
+        Map<String, String> flags = index.withPrefix("feature.flags.");
+        assertEquals(Arrays.asList("alpha", "beta"), Arrays.asList(flags.keySet().toArray()));
+        assertEquals("off", flags.get("alpha"));
+        assertEquals("on", flags.get("beta"));
+        assertEquals(Collections.singletonMap("", "last"), index.withPrefix("zzz"));
+        assertTrue(index.withPrefix("zzzz").isEmpty());
+        assertTrue(index.withPrefix("b").isEmpty());
+        assertEquals(6, index.withPrefix("").size());
+        try {
+            flags.put("gamma", "on");
+            fail("expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void should_query_hash_map_keys() {
+        assertPrefixQueries(PrefixIndex.of(properties()));
+    }
+
+    @Test
+    public void should_query_packed_keys_in_place() {
+        assertPrefixQueries(PrefixIndex.of(PackedPropertiesMap.pack(properties())));
+    }
+
+    @Test
+    public void should_query_loaded_keys_of_lazy_map() {
+        LazyPropertiesMap lazy = new LazyPropertiesMap(properties(), new LazyPropertiesProvider[0], 16);
+        assertPrefixQueries(PrefixIndex.of(lazy));
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PropertiesInterpolatorTest {
+
+    private final PropertiesInterpolator interpolator = new PropertiesInterpolator(
+            Collections.singletonMap("HOST", "example.com"),
+            Collections.singletonMap("app.version", "2"));
+
+    private static Map<String, String> properties(String... keyValues) {
+        Map<String, String> map = new HashMap<String, String>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void should_expand_references_in_dependency_order() {
+        Map<String, String> expanded = interpolator.expand(properties(
+                "orders.url", "${api.url}/orders",
+                "api.url", "${base.url}/v${sys:app.version}",
+                "base.url", "https://${env:HOST}",
+                "literal", "cost: $${price}",
+                "plain", "no references"));
+
+        assertEquals("https://example.com", expanded.get("base.url"));
+        assertEquals("https://example.com/v2", expanded.get("api.url"));
+        assertEquals("https://example.com/v2/orders", expanded.get("orders.url"));
+        assertEquals("cost: ${price}", expanded.get("literal"));
+        assertEquals("no references", expanded.get("plain"));
+    }
+
+    @Test
+    public void should_only_expand_the_given_values() {
+        Map<String, String> values = properties("url", "${host}/v2", "shadowed", "${host}");
+        Map<String, String> properties = properties("host", "example.com", "shadowed", "other");
+        properties.put("url", "${host}/v2");
+
+        Map<String, String> expanded = interpolator.expand(values, properties);
+        assertEquals(Collections.singletonMap("url", "example.com/v2"), expanded);
+    }
+
+    @Test
+    public void should_return_same_map_without_references() {
+        Map<String, String> properties = properties("a", "1", "b", "$5");
+        assertSame(properties, interpolator.expand(properties));
+    }
+
+    @Test
+    public void should_report_cycles() {
+        try {
+            interpolator.expand(properties("a", "${b}", "b", "x${c}", "c", "${a}", "d", "${a}"));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            String message = expected.getMessage();
+            assertTrue(message, message.contains("cyclic reference"));
+            assertTrue(message, message.contains("a -> b -> c -> a")
+                    || message.contains("b -> c -> a -> b")
+                    || message.contains("c -> a -> b -> c"));
+        }
+    }
+
+    @Test
+    public void should_report_cycles_with_undefined_references() {
+        try {
+            interpolator.expand(properties("a", "${b}", "b", "${a}", "c", "${missing}", "d", "${c}${d}"));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            String message = expected.getMessage();
+            assertTrue(message, message.contains("property c references undefined property missing"));
+            assertTrue(message, message.contains("a -> b -> a") || message.contains("b -> a -> b"));
+            assertTrue(message, message.contains("d -> d"));
+            assertFalse(message, message.contains("c -> c"));
+        }
+    }
+
+    @Test
+    public void should_report_all_undefined_references() {
+        try {
+            interpolator.expand(properties("a", "${missing}", "b", "${env:NOPE}", "c", "${sys:nope}", "d", "${open"));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            String message = expected.getMessage();
+            assertTrue(message, message.contains("property a references undefined property missing"));
+            assertTrue(message, message.contains("undefined environment variable NOPE"));
+            assertTrue(message, message.contains("undefined system property nope"));
+            assertTrue(message, message.contains("property d has an unterminated reference"));
+        }
+    }
+}
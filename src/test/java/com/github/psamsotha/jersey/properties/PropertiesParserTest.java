@@ -0,0 +1,85 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PropertiesParserTest {
+
+    private static Map<String, String> parse(String input) throws IOException {
+        Map<String, String> map = new HashMap<String, String>();
+        PropertiesParser.parse(Channels.newChannel(
+                new ByteArrayInputStream(input.getBytes("ISO-8859-1"))), map);
+        return map;
+    }
+
+    private static Map<String, String> load(String input) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(input.getBytes("ISO-8859-1")));
+        Map<String, String> map = new HashMap<String, String>();
+        for (String name : properties.stringPropertyNames()) {
+            map.put(name, properties.getProperty(name));
+        }
+        return map;
+    }
+
+    private static void assertSameAsProperties(String input) throws IOException {
+        assertEquals(load(input), parse(input));
+    }
+
+    @Test
+    public void separators_should_match_properties() throws IOException {
+        assertSameAsProperties("a=1\nb:2\nc 3\nd\t = 4\ne  :  : 5\nf==6\ng\nh=\n  i = leading\n");
+    }
+
+    @Test
+    public void comments_and_blank_lines_should_be_skipped() throws IOException {
+        assertSameAsProperties("# comment\n! other \\\nnot.continued=1\n\n   \n\t# indented\nkey=value");
+    }
+
+    @Test
+    public void continuation_lines_should_be_joined() throws IOException {
+        assertSameAsProperties("list=one, \\\n     two, \\\r\n\tthree\nnext=4\n"
+                + "even=ends\\\\\nodd\\\n  key=joined\nlast=eof\\");
+    }
+
+    @Test
+    public void escapes_should_be_converted() throws IOException {
+        assertSameAsProperties("key\\ with\\ spaces=1\nk\\=ey=2\nk\\:ey=3\n"
+                + "tabs=\\t\\r\\n\\f\nunicode=\\u00e9\\u4E2D\nother=\\q\\\\\né=latin\n");
+        assertEquals("é中", parse("unicode=\\u00e9\\u4E2D").get("unicode"));
+    }
+
+    @Test
+    public void line_endings_should_match_properties() throws IOException {
+        assertSameAsProperties("a=1\rb=2\r\nc=3\n\r\nd=4\r");
+    }
+
+    @Test
+    public void large_input_should_cross_buffer_boundaries() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            builder.append("key.").append(i).append(" = value \\\n    ").append(i).append('\n');
+        }
+        Map<String, String> map = parse(builder.toString());
+        assertEquals(5000, map.size());
+        assertEquals("value 4999", map.get("key.4999"));
+        assertEquals(load(builder.toString()), map);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformed_unicode_escape_should_fail() throws IOException {
+        parse("key=\\u00g1");
+    }
+}
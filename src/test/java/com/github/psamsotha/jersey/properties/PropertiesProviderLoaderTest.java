@@ -0,0 +1,95 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PropertiesProviderLoaderTest {
+
+    private static PropertiesProvider provider(final String key, final String value, final long sleepMillis) {
+        return new PropertiesProvider() {
+            @Override
+            public Map<String, String> getProperties() {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return Collections.singletonMap(key, value);
+            }
+        };
+    }
+
+    @Test
+    public void later_providers_should_take_precedence() {
+        PropertiesProviderLoader loader = new PropertiesProviderLoader(new PropertiesProvider[]{
+            provider("key", "first", 200), provider("key", "second", 0), provider("other", "third", 50)
+        }, 8, 0);
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("key", "config");
+        loader.loadInto(map);
+
+        assertEquals("second", map.get("key"));
+        assertEquals("third", map.get("other"));
+    }
+
+    @Test
+    public void providers_should_load_concurrently() {
+        final CountDownLatch latch = new CountDownLatch(2);
+        PropertiesProvider waiting = new PropertiesProvider() {
+            @Override
+            public Map<String, String> getProperties() {
+                latch.countDown();
+                try {
+                    // only completes if the other provider runs at the same time.
+                    assertTrue(latch.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                return Collections.singletonMap("key", "value");
+            }
+        };
+        PropertiesProviderLoader loader
+                = new PropertiesProviderLoader(new PropertiesProvider[]{waiting, waiting}, 2, 0);
+        Map<String, String> map = new HashMap<String, String>();
+        loader.loadInto(map);
+        assertEquals("value", map.get("key"));
+    }
+
+    @Test
+    public void slow_provider_should_be_skipped() {
+        PropertiesProviderLoader loader = new PropertiesProviderLoader(new PropertiesProvider[]{
+            provider("fast", "1", 0), provider("slow", "2", 10000), provider("queued", "3", 100)
+        }, 2, 1000);
+        Map<String, String> map = new HashMap<String, String>();
+        long start = System.nanoTime();
+        loader.loadInto(map);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals("1", map.get("fast"));
+        assertFalse(map.containsKey("slow"));
+        assertEquals("3", map.get("queued"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void provider_errors_should_propagate() {
+        PropertiesProvider failing = new PropertiesProvider() {
+            @Override
+            public Map<String, String> getProperties() {
+                throw new IllegalStateException("vault unavailable");
+            }
+        };
+        new PropertiesProviderLoader(new PropertiesProvider[]{failing, provider("key", "value", 0)}, 2, 0)
+                .loadInto(new HashMap<String, String>());
+    }
+}
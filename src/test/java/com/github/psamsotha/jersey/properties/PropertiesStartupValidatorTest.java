@@ -0,0 +1,130 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PropertiesStartupValidatorTest {
+
+    private static final String RESOURCE = "/app.properties";
+
+    @Path("valid")
+    public static class ValidResource {
+
+        @Prop("field.prop")
+        private String field;
+
+        public ValidResource(@Prop("constructor.prop") String constructor) {
+        }
+
+        @GET
+        public String get(@Prop("int.prop") int value,
+                          @Prop(value = "missing.prop", defaultValue = "1") int missing) {
+            return field;
+        }
+    }
+
+    @Path("invalid")
+    public static class InvalidResource {
+
+        @Prop("missing.field.prop")
+        private String field;
+
+        public InvalidResource(@Prop("missing.constructor.prop") String constructor) {
+        }
+
+        @GET
+        public String get(@Prop("hello.prop") int notAnInt) {
+            return field;
+        }
+    }
+
+    private static ResourceConfig config(Class<?> resource) {
+        return new ResourceConfig(resource)
+                .register(JerseyPropertiesFeature.class)
+                .property(JerseyPropertiesFeature.RESOURCE_PATH, RESOURCE)
+                .property(JerseyPropertiesFeature.FAIL_ON_PROPERTY_ERRORS, true);
+    }
+
+    @Test
+    public void valid_injection_points_should_deploy() {
+        new ApplicationHandler(config(ValidResource.class));
+    }
+
+    @Test
+    public void all_invalid_injection_points_should_be_reported() {
+        try {
+            new ApplicationHandler(config(InvalidResource.class));
+            fail("Deployment should fail.");
+        } catch (RuntimeException ex) {
+            Throwable cause = ex;
+            while (!(cause instanceof IllegalStateException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            String message = cause.getMessage();
+            assertTrue(message, message.contains("property missing.field.prop is not set"));
+            assertTrue(message, message.contains("property missing.constructor.prop is not set"));
+            assertTrue(message, message.contains("property hello.prop can not be converted to int"));
+        }
+    }
+
+    @Test
+    public void only_errors_should_be_logged_as_warnings_once() {
+        final List<String> warnings = new ArrayList<String>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    synchronized (warnings) {
+                        warnings.add(record.getMessage());
+                    }
+                }
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {}
+        };
+        Logger logger = Logger.getLogger(JerseyPropertiesFeature.class.getPackage().getName());
+        logger.addHandler(handler);
+        try {
+            new ApplicationHandler(config(InvalidResource.class)
+                    .property(JerseyPropertiesFeature.FAIL_ON_PROPERTY_ERRORS, false));
+        } finally {
+            logger.removeHandler(handler);
+        }
+        int conversionErrors = 0;
+        for (String warning : warnings) {
+            assertFalse(warning, warning.contains("missing.field.prop"));
+            assertFalse(warning, warning.contains("missing.constructor.prop"));
+            if (warning.contains("hello.prop")) {
+                conversionErrors++;
+            }
+        }
+        assertEquals(warnings.toString(), 1, conversionErrors);
+    }
+
+    @Test
+    public void startup_resolution_should_be_optional() {
+        new ApplicationHandler(config(InvalidResource.class)
+                .property(JerseyPropertiesFeature.RESOLVE_ON_STARTUP, false));
+    }
+}
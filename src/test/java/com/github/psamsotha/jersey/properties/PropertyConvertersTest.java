@@ -0,0 +1,151 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.server.internal.inject.ExtractorException;
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class PropertyConvertersTest {
+
+    enum Color { RED, GREEN }
+
+    enum Parsed {
+        ONE;
+
+        public static Parsed fromString(String value) {
+            return ONE;
+        }
+    }
+
+    private final PropertyConverters converters = new PropertyConverters(16);
+
+    @SuppressWarnings("unchecked")
+    private <T> ConvertingExtractor<T> extractor(Class<T> type, String defaultValue) {
+        PropertyConverter<T> converter = (PropertyConverter<T>) PropertyConverters.forType(type);
+        return new ConvertingExtractor<T>("key", defaultValue, type, converter, converters);
+    }
+
+    private static MultivaluedMap<String, String> props(String value) {
+        MultivaluedMap<String, String> props = new MultivaluedHashMap<String, String>();
+        if (value != null) {
+            props.putSingle("key", value);
+        }
+        return props;
+    }
+
+    @Test
+    public void should_convert_primitives_like_jersey() {
+        assertEquals(Integer.valueOf(42), extractor(int.class, null).extract(props(" 42 ")));
+        assertEquals(Integer.valueOf(0), extractor(int.class, null).extract(props(null)));
+        assertEquals(Boolean.FALSE, extractor(boolean.class, null).extract(props("")));
+        assertNull(extractor(Long.class, null).extract(props(null)));
+        assertEquals(Long.valueOf(7), extractor(Long.class, "7").extract(props(null)));
+        try {
+            extractor(int.class, null).extract(props("forty-two"));
+            fail("expected ExtractorException");
+        } catch (ExtractorException expected) {
+            assertTrue(expected.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    @Test
+    public void blank_wrappers_should_be_converted_like_jersey() {
+        assertEquals(Boolean.FALSE, extractor(Boolean.class, null).extract(props(" ")));
+        try {
+            extractor(Long.class, "7").extract(props(" "));
+            fail("expected ExtractorException");
+        } catch (ExtractorException expected) {
+            assertTrue(expected.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    @Test
+    public void should_convert_durations_reflectively() throws Exception {
+        Class<?> duration;
+        try {
+            duration = Class.forName(JavaTimeConverters.DURATION);
+        } catch (ClassNotFoundException ex) {
+            // Java 7
+            return;
+        }
+        assertEquals("PT30S", extractor(duration, null).extract(props("30s")).toString());
+        assertEquals("PT1M30S", extractor(duration, null).extract(props(" PT90S ")).toString());
+        try {
+            extractor(duration, null).extract(props("PT"));
+            fail("expected ExtractorException");
+        } catch (ExtractorException expected) {
+            assertTrue(expected.getCause() instanceof RuntimeException);
+        }
+    }
+
+    @Test
+    public void should_convert_enums_without_reflection() {
+        assertEquals(Color.GREEN, extractor(Color.class, null).extract(props("GREEN")));
+        assertNull(extractor(Color.class, null).extract(props(null)));
+        assertNull("enums with fromString are left to Jersey", PropertyConverters.forType(Parsed.class));
+        assertNull(PropertyConverters.forType(Object.class));
+    }
+
+    @Test
+    public void should_cache_costly_conversions() {
+        Pattern first = extractor(Pattern.class, null).extract(props("a+b"));
+        Pattern second = extractor(Pattern.class, null).extract(props("a+b"));
+        assertSame(first, second);
+        URI uri = extractor(URI.class, null).extract(props("http://localhost"));
+        assertEquals(URI.create("http://localhost"), uri);
+        assertEquals(2, converters.cacheSize());
+        assertEquals(Integer.valueOf(1), extractor(Integer.class, null).extract(props("1")));
+        assertEquals(2, converters.cacheSize());
+    }
+
+    @Test
+    public void should_parse_durations() {
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), Durations.parseNanos("500"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), Durations.parseNanos("500ms"));
+        assertEquals(TimeUnit.SECONDS.toNanos(30), Durations.parseNanos("30s"));
+        assertEquals(TimeUnit.MINUTES.toNanos(5), Durations.parseNanos("5 min"));
+        assertEquals(TimeUnit.HOURS.toNanos(1), Durations.parseNanos("1h"));
+        assertEquals(TimeUnit.DAYS.toNanos(2), Durations.parseNanos("2d"));
+        try {
+            Durations.parseNanos("5 fortnights");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void should_parse_byte_sizes() {
+        assertEquals(512, ByteSizes.parse("512"));
+        assertEquals(64 * 1024, ByteSizes.parse("64KB"));
+        assertEquals(2L << 30, ByteSizes.parse("2g"));
+        assertEquals(1L << 40, ByteSizes.parse("1TiB"));
+        try {
+            ByteSizes.parse("100000000T");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void units_should_not_depend_on_the_default_locale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(TimeUnit.MINUTES.toNanos(5), Durations.parseNanos("5MIN"));
+            assertEquals(1L << 20, ByteSizes.parse("1mib"));
+            assertEquals(1L << 40, ByteSizes.parse("1tib"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+
+package com.github.psamsotha.jersey.properties;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class SnapshotFileTest {
+
+    private static final String BUNDLE = "Messages";
+
+    private static File compile(String resourcePath, String bundleName, Locale defaultLocale) throws IOException {
+        File file = File.createTempFile("config", ".snapshot");
+        file.deleteOnExit();
+        SnapshotCompiler.compile(file, resourcePath, bundleName, defaultLocale);
+        return file;
+    }
+
+    @Test
+    public void properties_should_be_read_from_snapshot() throws IOException {
+        SnapshotFile snapshot = SnapshotFile.open(compile("/app.properties", null, Locale.US));
+
+        Map<String, String> expected = new HashMap<String, String>();
+        DefaultPropertiesProvider.loadInto("/app.properties", expected);
+        assertEquals(expected, snapshot.getProperties());
+        assertEquals("Hello Props", snapshot.getProperties().get("hello.prop"));
+        assertNull(snapshot.getProperties().get("missing.prop"));
+        assertNull(snapshot.getBundleName());
+    }
+
+    @Test
+    public void bundle_messages_should_match_resource_bundles() throws IOException {
+        SnapshotFile snapshot = SnapshotFile.open(compile(null, BUNDLE, Locale.US));
+        I18NConfigProperties fromBundles = new I18NConfigProperties(Locale.US, BUNDLE);
+        I18NConfigProperties fromSnapshot
+                = new I18NConfigProperties(Locale.US, snapshot, LocaleNegotiator.DEFAULT_CACHE_SIZE);
+
+        assertNull(snapshot.getProperties());
+        assertEquals(fromBundles.localeCount(), fromSnapshot.localeCount());
+        assertEquals(0, fromSnapshot.loadedBundleCount());
+        for (int i = 0; i < fromBundles.localeCount(); i++) {
+            Locale locale = fromBundles.localeAt(i);
+            assertEquals(fromBundles.localeIndex(locale), fromSnapshot.localeIndex(locale));
+            assertEquals(fromBundles.resolvedMessages(i), fromSnapshot.resolvedMessages(i));
+        }
+        assertEquals("Nur auf Deutsch", fromSnapshot.forLocaleIndex(
+                fromSnapshot.localeIndex(Locale.GERMANY)).getFirst("language.only"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void different_default_locale_should_fail() throws IOException {
+        SnapshotFile snapshot = SnapshotFile.open(compile(null, BUNDLE, Locale.US));
+        new I18NConfigProperties(Locale.FRANCE, snapshot, LocaleNegotiator.DEFAULT_CACHE_SIZE);
+    }
+
+    @Test(expected = IOException.class)
+    public void other_file_should_fail() throws IOException {
+        File file = File.createTempFile("config", ".snapshot");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("not=a snapshot\n".getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+        SnapshotFile.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void missing_properties_file_should_fail_compile() throws IOException {
+        compile("/missing.properties", null, Locale.US);
+    }
+}
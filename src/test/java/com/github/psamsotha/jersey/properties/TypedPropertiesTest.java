@@ -0,0 +1,95 @@
+package com.github.psamsotha.jersey.properties;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static junit.framework.Assert.*;
+
+/**
+ *
+ * @author Paul Samsotha
+ */
+public class TypedPropertiesTest {
+
+    private static DefaultConfigProperties properties(String... keyValues) {
+        Map<String, String> map = new HashMap<String, String>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return new DefaultConfigProperties(Locale.US, map);
+    }
+
+    @Test
+    public void should_parse_typed_values() {
+        TypedProperties typed = new TypedProperties(new ConfigPropertiesFactory(properties(
+                "int", " 42 ", "long", "9000000000", "bool", "TRUE", "timeout", "30s",
+                "size", "64KB", "blank", " ", "bad", "x")));
+
+        assertEquals(42, typed.getInt("int"));
+        assertEquals(9000000000L, typed.getLong("long"));
+        assertTrue(typed.getBoolean("bool"));
+        assertEquals(30000, typed.getDuration("timeout", TimeUnit.MILLISECONDS));
+        assertEquals(5, typed.getDuration("missing", 5, TimeUnit.SECONDS));
+        assertEquals(64 * 1024, typed.getBytes("size"));
+        assertEquals(3, typed.getInt("blank", 3));
+        assertFalse(typed.intProperty("blank").isSet());
+        assertEquals("x", typed.getString("bad"));
+        assertEquals("none", typed.getString("missing", "none"));
+        assertSame(typed.intProperty("int"), typed.intProperty("int"));
+        try {
+            typed.getInt("missing");
+            fail("expected NoSuchElementException");
+        } catch (NoSuchElementException expected) {
+        }
+        try {
+            typed.getInt("bad");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("bad"));
+        }
+    }
+
+    @Test
+    public void handles_should_follow_reloaded_properties() {
+        ConfigPropertiesFactory factory = new ConfigPropertiesFactory(properties("limit", "10"));
+        TypedProperties typed = new TypedProperties(factory);
+        TypedProperties.IntProperty limit = typed.intProperty("limit");
+        assertEquals(10, limit.get());
+
+        factory.publish(properties("limit", "20"));
+        assertEquals(20, limit.get());
+
+        factory.publish(properties());
+        assertEquals(1, limit.get(1));
+    }
+
+    @Test
+    public void conversion_errors_should_be_cached_until_the_value_changes() {
+        ConfigPropertiesFactory factory = new ConfigPropertiesFactory(properties("limit", "ten"));
+        TypedProperties.IntProperty limit = new TypedProperties(factory).intProperty("limit");
+        assertTrue(limit.isSet());
+        IllegalArgumentException first = null;
+        for (int i = 0; i < 2; i++) {
+            try {
+                limit.get(1);
+                fail("expected IllegalArgumentException");
+            } catch (IllegalArgumentException expected) {
+                if (first == null) {
+                    first = expected;
+                } else {
+                    // a new exception, with the stack trace of its caller
+                    assertNotSame(first, expected);
+                    assertEquals(first.getMessage(), expected.getMessage());
+                }
+                assertTrue(expected.getMessage(), expected.getMessage().contains("limit"));
+            }
+        }
+
+        factory.publish(properties("limit", "10"));
+        assertEquals(10, limit.get());
+    }
+}